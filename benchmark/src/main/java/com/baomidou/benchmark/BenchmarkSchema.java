@@ -0,0 +1,91 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.config.po.TableField;
+import com.baomidou.config.po.TableInfo;
+import com.baomidou.config.rules.NamingStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试使用的合成表结构
+ */
+public final class BenchmarkSchema {
+
+    /**
+     * 字段定义：字段名、MySQL类型、Oracle类型、JAVA类型、注释
+     */
+    public static final String[][] COLUMNS = {
+            {"id", "bigint(20)", "NUMBER(19)", "Long", "主键"},
+            {"user_name", "varchar(64)", "VARCHAR2(64)", "String", "用户名"},
+            {"nick_name", "varchar(128)", "NVARCHAR2(128)", "String", "昵称"},
+            {"age", "int(11)", "NUMBER(9)", "Integer", "年龄"},
+            {"status", "tinyint(4)", "NUMBER(3)", "Integer", "状态"},
+            {"amount", "decimal(10,2) unsigned", "NUMBER(10,2)", "BigDecimal", "金额"},
+            {"score", "double", "BINARY_DOUBLE", "Double", "积分"},
+            {"ratio", "float", "FLOAT", "Float", "比例"},
+            {"is_deleted", "bit(1)", "CHAR(1)", "Boolean", "是否删除"},
+            {"remark", "text", "CLOB", "String", "备注"},
+            {"avatar", "blob", "BLOB", "byte[]", "头像"},
+            {"create_time", "datetime", "DATE", "Date", "创建时间"},
+            {"update_time", "timestamp", "TIMESTAMP(6)", "Date", "更新时间"},
+    };
+
+    private BenchmarkSchema() {
+    }
+
+    /**
+     * 表名
+     *
+     * @param index 序号
+     * @return 表名
+     */
+    public static String tableName(int index) {
+        return String.format("t_bench_table_%05d", index);
+    }
+
+    /**
+     * 直接构造表信息，不经过数据库读取，用于模板合成的基准测试
+     *
+     * @param tables 表数量
+     * @return 表信息
+     */
+    public static List<TableInfo> tableInfos(int tables) {
+        List<TableInfo> tableList = new ArrayList<TableInfo>(tables);
+        for (int i = 0; i < tables; i++) {
+            TableInfo tableInfo = new TableInfo();
+            tableInfo.setName(tableName(i));
+            tableInfo.setComment("基准测试表" + i);
+            String entityName = NamingStrategy.underlineToCamel(tableInfo.getName());
+            entityName = entityName.substring(0, 1).toUpperCase() + entityName.substring(1);
+            tableInfo.setEntityName(entityName);
+            tableInfo.setMapperName(entityName + "Mapper");
+            tableInfo.setXmlName(entityName + "Mapper");
+            tableInfo.setServiceName("I" + entityName + "Service");
+            tableInfo.setServiceImplName(entityName + "ServiceImpl");
+            tableInfo.setFields(tableFields());
+            tableList.add(tableInfo);
+        }
+        return tableList;
+    }
+
+    /**
+     * 构造一张表的字段信息
+     *
+     * @return 字段信息
+     */
+    public static List<TableField> tableFields() {
+        List<TableField> fieldList = new ArrayList<TableField>(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            TableField field = new TableField();
+            field.setKeyFlag(i == 0);
+            field.setName(COLUMNS[i][0]);
+            field.setType(COLUMNS[i][1]);
+            field.setPropertyName(NamingStrategy.underlineToCamel(COLUMNS[i][0]));
+            field.setPropertyType(COLUMNS[i][3]);
+            field.setComment(COLUMNS[i][4]);
+            fieldList.add(field);
+        }
+        return fieldList;
+    }
+}
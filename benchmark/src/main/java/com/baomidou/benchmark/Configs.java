@@ -0,0 +1,58 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.benchmark.jdbc.SchemaDriver;
+import com.baomidou.config.DataSourceConfig;
+import com.baomidou.config.PackageConfig;
+import com.baomidou.config.StrategyConfig;
+import com.baomidou.config.rules.DbType;
+import com.baomidou.config.rules.NamingStrategy;
+
+import java.lang.reflect.Field;
+
+/**
+ * 构造插件配置对象
+ * 配置类只提供给 Maven 注入，没有公开的 setter，这里与 Maven 一样通过反射赋值，只在准备阶段使用
+ */
+public final class Configs {
+
+    private Configs() {
+    }
+
+    public static DataSourceConfig dataSource(String dbType, int tables) {
+        DataSourceConfig config = new DataSourceConfig();
+        set(config, "driverName", SchemaDriver.class.getName());
+        set(config, "url", SchemaDriver.url(dbType, tables));
+        set(config, "username", "bench");
+        set(config, "password", "bench");
+        set(config, "dbType", "oracle".equals(dbType) ? DbType.ORACLE : DbType.MYSQL);
+        return config;
+    }
+
+    public static PackageConfig packageConfig() {
+        PackageConfig config = new PackageConfig();
+        set(config, "parent", "com.baomidou.bench");
+        set(config, "entity", "entity");
+        set(config, "service", "service");
+        set(config, "serviceImpl", "service.impl");
+        set(config, "mapper", "mapper");
+        set(config, "xml", "mapper.xml");
+        return config;
+    }
+
+    public static StrategyConfig strategy(boolean bulkQuery) {
+        StrategyConfig config = new StrategyConfig();
+        set(config, "naming", NamingStrategy.underline_to_camel);
+        set(config, "bulkQuery", bulkQuery);
+        return config;
+    }
+
+    private static void set(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (Exception e) {
+            throw new IllegalStateException("无法设置配置项 " + name, e);
+        }
+    }
+}
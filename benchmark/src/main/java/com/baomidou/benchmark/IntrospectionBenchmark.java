@@ -0,0 +1,59 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.config.DataSourceConfig;
+import com.baomidou.config.builder.ConfigBuilder;
+import com.baomidou.config.po.TableInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 表结构读取：使用内存JDBC驱动，测量 ConfigBuilder 的语句拼装、结果处理、命名与类型转换开销，不包含网络延迟
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+    @Param({"mysql", "oracle"})
+    public String dbType;
+
+    @Param({"10", "1000", "10000"})
+    public int tables;
+
+    @Param({"false", "true"})
+    public boolean bulkQuery;
+
+    private DataSourceConfig dataSource;
+
+    @Setup
+    public void setup() {
+        dataSource = Configs.dataSource(dbType, tables);
+    }
+
+    @Benchmark
+    public List<TableInfo> introspect() throws SQLException {
+        ConfigBuilder config = new ConfigBuilder(Configs.packageConfig(), dataSource,
+                Configs.strategy(bulkQuery), "target/bench-output");
+        try {
+            return config.getTableInfoList();
+        } finally {
+            config.close();
+        }
+    }
+}
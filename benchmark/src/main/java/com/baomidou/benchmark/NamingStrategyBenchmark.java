@@ -0,0 +1,66 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.config.rules.NameConverter;
+import com.baomidou.config.rules.NamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命名策略转换
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamingStrategyBenchmark {
+
+    @Param({"id", "create_time", "t_sys_user_login_log", "USER_ACCOUNT_BALANCE_HISTORY"})
+    public String name;
+
+    private NameConverter converter;
+
+    @Setup
+    public void setup() {
+        converter = new NameConverter(NamingStrategy.underline_to_camel);
+        converter.intern(name);
+    }
+
+    @Benchmark
+    public String underlineToCamel() {
+        return NamingStrategy.underlineToCamel(name);
+    }
+
+    /**
+     * 一次转换同时得到属性名与首字母大写的名称
+     */
+    @Benchmark
+    public NameConverter.Name convert() {
+        return converter.convert(name);
+    }
+
+    /**
+     * 重复出现的字段名直接取缓存
+     */
+    @Benchmark
+    public NameConverter.Name intern() {
+        return converter.intern(name);
+    }
+
+    @Benchmark
+    public String removePrefixAndCamel() {
+        return NamingStrategy.removePrefixAndCamel(name);
+    }
+}
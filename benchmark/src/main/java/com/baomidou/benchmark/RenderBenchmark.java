@@ -0,0 +1,111 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.config.ConstVal;
+import com.baomidou.config.po.TableInfo;
+import com.baomidou.generator.BuiltinTemplateEngine;
+import com.baomidou.generator.TemplateEngine;
+import com.baomidou.generator.VelocityTemplateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 使用插件自带的五个模板合成全部表的文件内容，输出丢弃，不包含磁盘写入
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+
+    private static final String[] TEMPLATES = {ConstVal.TEMPLATE_ENTITY, ConstVal.TEMPLATE_MAPPER,
+            ConstVal.TEMPLATE_XML, ConstVal.TEMPLATE_SERVICE, ConstVal.TEMPLATE_SERVICEIMPL};
+
+    @Param({"10", "1000", "10000"})
+    public int tables;
+
+    @Param({ConstVal.TEMPLATE_ENGINE_VELOCITY, ConstVal.TEMPLATE_ENGINE_BUILTIN})
+    public String engineName;
+
+    private List<TableInfo> tableList;
+    private TemplateEngine engine;
+    private Map<String, String> packageInfo;
+
+    @Setup
+    public void setup() throws Exception {
+        // 与 GenerateMojo 使用相同的引擎
+        engine = ConstVal.TEMPLATE_ENGINE_BUILTIN.equals(engineName) ? new BuiltinTemplateEngine()
+                : new VelocityTemplateEngine();
+        engine.init(TEMPLATES);
+        packageInfo = new HashMap<String, String>();
+        packageInfo.put(ConstVal.ENTITY, "com.baomidou.bench.entity");
+        packageInfo.put(ConstVal.MAPPER, "com.baomidou.bench.mapper");
+        packageInfo.put(ConstVal.XML, "com.baomidou.bench.mapper.xml");
+        packageInfo.put(ConstVal.SERIVCE, "com.baomidou.bench.service");
+        packageInfo.put(ConstVal.SERVICEIMPL, "com.baomidou.bench.service.impl");
+        tableList = BenchmarkSchema.tableInfos(tables);
+    }
+
+    @Benchmark
+    public long render() throws Exception {
+        CountingWriter writer = new CountingWriter();
+        for (TableInfo tableInfo : tableList) {
+            Map<String, Object> ctx = new HashMap<String, Object>();
+            ctx.put("package", packageInfo);
+            ctx.put("table", tableInfo);
+            ctx.put("entity", tableInfo.getEntityName());
+            ctx.put("idGenType", "ID_WORKER");
+            ctx.put("superClassPackage", "com.baomidou.framework.service.ICommonService");
+            ctx.put("superClass", "ICommonService");
+            ctx.put("enableCache", true);
+            ctx.put("author", "bench");
+            ctx.put("date", "2016-09-10");
+            for (String template : TEMPLATES) {
+                engine.merge(template, ctx, writer);
+            }
+        }
+        return writer.count;
+    }
+
+    /**
+     * 只统计字符数的输出
+     */
+    private static class CountingWriter extends Writer {
+
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
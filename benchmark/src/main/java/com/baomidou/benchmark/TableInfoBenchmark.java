@@ -0,0 +1,64 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.config.po.TableField;
+import com.baomidou.config.po.TableInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 表信息的派生数据（字段列表、导入的类型与主键等）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableInfoBenchmark {
+
+    private List<TableField> fields;
+    private TableInfo table;
+
+    @Setup
+    public void setup() {
+        fields = BenchmarkSchema.tableFields();
+        table = new TableInfo();
+        table.setFields(fields);
+    }
+
+    /**
+     * 设置字段信息时一次性计算字段列表、导入的类型与主键等派生数据
+     */
+    @Benchmark
+    public TableInfo setFields() {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setFields(fields);
+        return tableInfo;
+    }
+
+    /**
+     * 模板中读取派生数据
+     */
+    @Benchmark
+    public void getDerived(Blackhole bh) {
+        bh.consume(table.getFieldNames());
+        bh.consume(table.isHasDate());
+        bh.consume(table.getImportPackages());
+        for (TableField field : table.getFields()) {
+            bh.consume(field.getCapitalName());
+            bh.consume(field.isConvert());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.baomidou.benchmark;
+
+import com.baomidou.config.rules.QuerySQL;
+import com.baomidou.config.rules.TypeMappingRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字段类型到JAVA类型的转换，每次调用转换合成表结构中的全部字段类型
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeMappingBenchmark {
+
+    @Param({"mysql", "oracle"})
+    public String dbType;
+
+    private QuerySQL querySQL;
+    private TypeMappingRegistry registry;
+    private String[] types;
+
+    @Setup
+    public void setup() {
+        querySQL = "oracle".equals(dbType) ? QuerySQL.ORACLE : QuerySQL.MYSQL;
+        registry = new TypeMappingRegistry(querySQL, null);
+        int typeIndex = "oracle".equals(dbType) ? 2 : 1;
+        types = new String[BenchmarkSchema.COLUMNS.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = BenchmarkSchema.COLUMNS[i][typeIndex];
+        }
+    }
+
+    /**
+     * 已解析过的字段类型直接查表
+     */
+    @Benchmark
+    public void getJavaType(Blackhole bh) {
+        for (String type : types) {
+            bh.consume(registry.getJavaType(type));
+        }
+    }
+
+    /**
+     * 首次出现的字段类型需要解析
+     */
+    @Benchmark
+    public void getJavaTypeUncached(Blackhole bh) {
+        TypeMappingRegistry registry = new TypeMappingRegistry(querySQL, null);
+        for (String type : types) {
+            bh.consume(registry.getJavaType(type));
+        }
+    }
+}
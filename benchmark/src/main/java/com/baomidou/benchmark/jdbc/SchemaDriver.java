@@ -0,0 +1,243 @@
+package com.baomidou.benchmark.jdbc;
+
+import com.baomidou.benchmark.BenchmarkSchema;
+import com.baomidou.config.rules.QuerySQL;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 内存中的JDBC驱动，按 {@link QuerySQL} 中的语句返回合成的表结构，用于不依赖真实数据库的基准测试
+ * 连接地址格式：jdbc:schema:mysql:1000 或 jdbc:schema:oracle:1000，最后一段为表数量
+ */
+public class SchemaDriver implements Driver {
+
+    public static final String URL_PREFIX = "jdbc:schema:";
+
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+    private static final Pattern ORACLE_TABLE = Pattern.compile("A\\.TABLE_NAME = '([^']+)'");
+
+    static {
+        try {
+            DriverManager.registerDriver(new SchemaDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * 生成连接地址
+     *
+     * @param dbType 数据库类型，mysql 或 oracle
+     * @param tables 表数量
+     * @return 连接地址
+     */
+    public static String url(String dbType, int tables) {
+        return URL_PREFIX + dbType + ":" + tables;
+    }
+
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        String[] parts = url.substring(URL_PREFIX.length()).split(":");
+        QuerySQL querySQL = "oracle".equals(parts[0]) ? QuerySQL.ORACLE : QuerySQL.MYSQL;
+        return proxy(Connection.class, new ConnectionHandler(querySQL, Integer.parseInt(parts[1])));
+    }
+
+    public boolean acceptsURL(String url) {
+        return null != url && url.startsWith(URL_PREFIX);
+    }
+
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SchemaDriver.class.getClassLoader(), new Class[]{type}, handler);
+    }
+
+    /**
+     * 未实现的方法返回默认值
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    /**
+     * 连接：按语句内容返回对应的结果集
+     */
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final QuerySQL querySQL;
+        private final int tables;
+
+        ConnectionHandler(QuerySQL querySQL, int tables) {
+            this.querySQL = querySQL;
+            this.tables = tables;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if ("prepareStatement".equals(method.getName())) {
+                final List<Map<String, String>> rows = query((String) args[0]);
+                return proxy(PreparedStatement.class, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("executeQuery".equals(method.getName())) {
+                            return proxy(ResultSet.class, new ResultSetHandler(rows));
+                        }
+                        return defaultValue(method.getReturnType());
+                    }
+                });
+            }
+            return defaultValue(method.getReturnType());
+        }
+
+        private List<Map<String, String>> query(String sql) {
+            List<Map<String, String>> rows = new ArrayList<Map<String, String>>();
+            String lower = sql.toLowerCase(Locale.ENGLISH);
+            if (sql.contains("FINGERPRINT")) {
+                for (String table : tableNames(sql)) {
+                    Map<String, String> row = new HashMap<String, String>();
+                    row.put(querySQL.getFieldTableName(), table);
+                    row.put("FINGERPRINT", String.valueOf(BenchmarkSchema.COLUMNS.length));
+                    rows.add(row);
+                }
+            } else if (lower.contains("information_schema.columns") || lower.contains("user_tab_columns a left join")) {
+                for (String table : tableNames(sql)) {
+                    addColumns(rows, table);
+                }
+            } else if (lower.startsWith("show full fields from ")) {
+                addColumns(rows, sql.substring("show full fields from ".length()).trim());
+            } else if (querySQL == QuerySQL.ORACLE && ORACLE_TABLE.matcher(sql).find()) {
+                Matcher matcher = ORACLE_TABLE.matcher(sql);
+                matcher.find();
+                addColumns(rows, matcher.group(1));
+            } else {
+                for (String table : tableNames(sql)) {
+                    Map<String, String> row = new HashMap<String, String>();
+                    row.put(querySQL.getTableName(), table);
+                    row.put(querySQL.getTableComment(), "基准测试表");
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * 语句中带有IN条件时只返回条件中的表
+         */
+        private List<String> tableNames(String sql) {
+            Set<String> filter = null;
+            int in = sql.indexOf("NAME IN (");
+            if (in > 0) {
+                filter = new HashSet<String>();
+                Matcher matcher = QUOTED.matcher(sql.substring(in));
+                while (matcher.find()) {
+                    filter.add(matcher.group(1).toUpperCase(Locale.ENGLISH));
+                }
+            }
+            List<String> names = new ArrayList<String>();
+            for (int i = 0; i < tables; i++) {
+                String name = BenchmarkSchema.tableName(i);
+                if (querySQL == QuerySQL.ORACLE) {
+                    name = name.toUpperCase(Locale.ENGLISH);
+                }
+                if (null == filter || filter.contains(name.toUpperCase(Locale.ENGLISH))) {
+                    names.add(name);
+                }
+            }
+            return names;
+        }
+
+        private void addColumns(List<Map<String, String>> rows, String table) {
+            boolean oracle = querySQL == QuerySQL.ORACLE;
+            for (int i = 0; i < BenchmarkSchema.COLUMNS.length; i++) {
+                String[] column = BenchmarkSchema.COLUMNS[i];
+                Map<String, String> row = new HashMap<String, String>();
+                row.put(querySQL.getFieldTableName(), table);
+                row.put(querySQL.getFieldName(), oracle ? column[0].toUpperCase(Locale.ENGLISH) : column[0]);
+                row.put(querySQL.getFieldType(), oracle ? column[2] : column[1]);
+                row.put(querySQL.getFieldComment(), column[4]);
+                row.put(querySQL.getFieldKey(), i == 0 ? "PRI" : "");
+                rows.add(row);
+            }
+        }
+    }
+
+    /**
+     * 结果集：按列名（忽略大小写）读取字符串
+     */
+    private static class ResultSetHandler implements InvocationHandler {
+
+        private final List<Map<String, String>> rows;
+        private int index = -1;
+
+        ResultSetHandler(List<Map<String, String>> rows) {
+            this.rows = rows;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if ("next".equals(name)) {
+                return ++index < rows.size();
+            } else if ("getString".equals(name) && args[0] instanceof String) {
+                Map<String, String> row = rows.get(index);
+                String label = (String) args[0];
+                String value = row.get(label);
+                if (null == value) {
+                    for (Map.Entry<String, String> entry : row.entrySet()) {
+                        if (entry.getKey().equalsIgnoreCase(label)) {
+                            return entry.getValue();
+                        }
+                    }
+                }
+                return value;
+            }
+            return defaultValue(method.getReturnType());
+        }
+    }
+}
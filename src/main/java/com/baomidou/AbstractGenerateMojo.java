@@ -1,13 +1,38 @@
 package com.baomidou;
 
+import com.alibaba.fastjson.JSON;
 import com.baomidou.config.DataSourceConfig;
 import com.baomidou.config.PackageConfig;
+import com.baomidou.config.SchemaConfig;
 import com.baomidou.config.StrategyConfig;
 import com.baomidou.config.builder.ConfigBuilder;
+import com.baomidou.config.builder.DdlParser;
+import com.baomidou.config.builder.SchemaSnapshot;
+import com.baomidou.config.rules.DbType;
+import com.baomidou.generator.GenerateManifest;
+import org.apache.commons.lang.StringUtils;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * 插件基类，用于属性配置
  * 设计成抽象类主要是用于后期可扩展，共享参数配置。
@@ -18,11 +43,17 @@ import org.apache.maven.plugins.annotations.Parameter;
 public abstract class AbstractGenerateMojo extends AbstractMojo {
 
     /**
-     * 数据源配置
+     * 数据源配置，与 schemas 至少配置一项；从快照或DDL脚本生成时不需要
      */
-    @Parameter(required = true)
+    @Parameter
     private DataSourceConfig dataSource;
 
+    /**
+     * 多个数据源（schema），各自使用独立的连接并发读取表信息，可分别配置输出包与策略
+     */
+    @Parameter
+    private SchemaConfig[] schemas;
+
     /**
      * 数据库表配置
      */
@@ -37,9 +68,9 @@ public abstract class AbstractGenerateMojo extends AbstractMojo {
 
 
     /**
-     * 生成文件的输出目录
+     * 生成文件的输出目录，默认为 target/generated-sources/mybatis-plus
      */
-    @Parameter
+    @Parameter(defaultValue = "${project.build.directory}/generated-sources/mybatis-plus")
     private String outputDir;
 
     /**
@@ -60,7 +91,115 @@ public abstract class AbstractGenerateMojo extends AbstractMojo {
     @Parameter(defaultValue = "author")
     private String author;
 
-    protected ConfigBuilder config;
+    /**
+     * 表结构缓存文件，配置后只重新读取结构发生变化的表
+     */
+    @Parameter
+    private File metadataCache;
+
+    /**
+     * 是否仅在文件内容变化时写入，内容未变化的文件保持原修改时间
+     */
+    @Parameter(defaultValue = "false")
+    private boolean writeIfChanged;
+
+    /**
+     * 生成文件的线程数（默认1，顺序生成）
+     */
+    @Parameter(defaultValue = "1")
+    private int renderThreads;
+
+    /**
+     * 写入文件的线程数，合成模板与写入文件并行进行（默认1），0表示在合成模板的线程中直接写入
+     */
+    @Parameter(defaultValue = "1")
+    private int writerThreads;
+
+    /**
+     * 文件同步到磁盘的策略：none（默认，由操作系统决定）、finish（生成结束时同步所有写入的文件）
+     */
+    @Parameter(defaultValue = "none")
+    private String fsync;
+
+    /**
+     * 每批读取并生成的表数量，表信息逐批加载、生成后释放
+     */
+    @Parameter(defaultValue = "100")
+    private int batchSize;
+
+    /**
+     * 是否增量生成，模板与表结构均未变化的文件不再重新生成
+     */
+    @Parameter(defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * 增量生成清单文件
+     */
+    @Parameter(defaultValue = "${project.build.directory}/mybatisplus/generate-manifest.json")
+    private File incrementalManifest;
+
+    /**
+     * 模板引擎：velocity（默认）、builtin（内置的代码生成，不解析模板，输出与默认模板一致），
+     * 或自定义 com.baomidou.generator.TemplateEngine 实现的类全称
+     */
+    @Parameter(defaultValue = "velocity")
+    private String templateEngine;
+
+    /**
+     * 表结构快照文件，由 snapshot 目标生成；generate 目标配置后从快照读取表结构，不再连接数据库
+     * 配置了多个数据源时，各数据源的快照文件名追加数据源名称；文件名以 .gz 结尾时使用gzip压缩
+     */
+    @Parameter
+    private File snapshotFile;
+
+    /**
+     * DDL脚本文件或目录（例如 Flyway 迁移脚本目录），配置后按顺序执行脚本中的建表、修改表语句得到表结构，不再连接数据库
+     * 目录下的 .sql 文件按 Flyway 的版本顺序读取；快照文件优先于DDL脚本
+     */
+    @Parameter
+    private File[] ddlFiles;
+
+    /**
+     * DDL脚本的数据库类型：mysql、oracle，默认与数据源相同，未配置数据源时为 mysql
+     */
+    @Parameter
+    private DbType ddlDbType;
+
+    /**
+     * 自定义模板目录，其中与默认模板同名的文件（entity.java.vm、mapper.java.vm、mapper.xml.vm、
+     * service.java.vm、serviceImpl.java.vm）替换默认模板，只对 velocity 模板引擎有效
+     */
+    @Parameter
+    private File templateDir;
+
+    /**
+     * 各阶段耗时统计报告文件（JSON），不配置时只在日志中输出汇总表
+     * 例如：${project.build.directory}/mybatisplus/metrics.json
+     */
+    @Parameter
+    private File metricsReport;
+
+    /**
+     * 插件版本，升级插件后默认模板或生成逻辑可能变化
+     */
+    @Parameter(defaultValue = "${plugin.version}", readonly = true)
+    private String pluginVersion;
+
+    /**
+     * 未配置 schemas 时唯一数据源的名称
+     */
+    protected static final String DEFAULT_SCHEMA = "default";
+
+    /**
+     * 数据源名称与配置，按配置顺序排列
+     */
+    protected Map<String, ConfigBuilder> configs;
+
+    /**
+     * 数据源名称与 schemas 中的配置，未配置 schemas 时为空
+     */
+    private Map<String, SchemaConfig> schemaMap;
 
     /**
      * 日志工具
@@ -69,13 +208,307 @@ public abstract class AbstractGenerateMojo extends AbstractMojo {
 
     /**
      * 初始化配置
+     * 配置了多个数据源时，各数据源同时连接并读取表清单
      */
-    protected void initConfig() {
-        if (null == config) {
-            config = new ConfigBuilder(packageInfo, dataSource, strategy, outputDir);
+    protected void initConfig() throws MojoExecutionException {
+        if (null != configs) {
+            return;
+        }
+        resolveSchemas();
+        if (null == schemaMap) {
+            try {
+                configs = new LinkedHashMap<String, ConfigBuilder>();
+                configs.put(DEFAULT_SCHEMA, createConfig(DEFAULT_SCHEMA));
+            } catch (SQLException e) {
+                configs = null;
+                throw new MojoExecutionException("读取数据库表信息失败：" + e.getMessage(), e);
+            } catch (IOException e) {
+                configs = null;
+                throw new MojoExecutionException("读取表结构文件失败：" + e.getMessage(), e);
+            }
+            return;
+        }
+        // 已校验全部配置，同时初始化
+        Map<String, Future<ConfigBuilder>> futures = new LinkedHashMap<String, Future<ConfigBuilder>>();
+        ExecutorService executor = Executors.newFixedThreadPool(schemaMap.size());
+        try {
+            for (final String name : schemaMap.keySet()) {
+                futures.put(name, executor.submit(new Callable<ConfigBuilder>() {
+                    public ConfigBuilder call() throws Exception {
+                        return createConfig(name);
+                    }
+                }));
+            }
+            // 等待所有数据源初始化结束，任一失败时关闭其余已建立的连接
+            Map<String, ConfigBuilder> result = new LinkedHashMap<String, ConfigBuilder>();
+            MojoExecutionException failure = null;
+            for (Map.Entry<String, Future<ConfigBuilder>> entry : futures.entrySet()) {
+                try {
+                    result.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException e) {
+                    if (null == failure) {
+                        failure = new MojoExecutionException("schema [" + entry.getKey() + "] 读取数据库表信息失败："
+                                + e.getCause().getMessage(), e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new MojoExecutionException("初始化配置被中断！", e);
+                    break;
+                }
+            }
+            if (null != failure) {
+                closeConfigs(result);
+                throw failure;
+            }
+            configs = result;
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    /**
+     * 释放各数据源的数据库连接，使用表结构缓存时写入缓存文件并输出重新读取的表数量
+     *
+     * @param configs 数据源与配置
+     */
+    protected void closeConfigs(Map<String, ConfigBuilder> configs) {
+        for (Map.Entry<String, ConfigBuilder> entry : configs.entrySet()) {
+            ConfigBuilder config = entry.getValue();
+            config.close();
+            if (config.getReloadedTables() >= 0) {
+                log.info("[" + entry.getKey() + "] 表结构缓存: 共 " + config.getTableCatalog().size()
+                        + " 张表，重新读取 " + config.getReloadedTables() + " 张表");
+            }
+        }
+    }
+
+    /**
+     * 校验数据源配置并确定各数据源的名称，只校验一次
+     */
+    private void resolveSchemas() throws MojoExecutionException {
+        if (null != schemaMap || null == schemas || schemas.length == 0) {
+            if (null == schemaMap && null == dataSource && !isLoadSnapshot() && isEmpty(ddlFiles)) {
+                throw new MojoExecutionException("请配置数据源 dataSource 或 schemas！");
+            }
+            return;
+        }
+        Map<String, SchemaConfig> resolved = new LinkedHashMap<String, SchemaConfig>();
+        for (int i = 0; i < schemas.length; i++) {
+            String name = StringUtils.isBlank(schemas[i].getName()) ? "schema" + (i + 1) : schemas[i].getName();
+            if (null == schemas[i].getDataSource() && !isLoadSnapshot() && isEmpty(schemas[i].getDdlFiles())) {
+                throw new MojoExecutionException("schema [" + name + "] 未配置数据源 dataSource！");
+            }
+            if (resolved.containsKey(name)) {
+                throw new MojoExecutionException("schema 名称重复：" + name);
+            }
+            resolved.put(name, schemas[i]);
+        }
+        schemaMap = resolved;
+    }
+
+    /**
+     * 各数据源的名称，按配置顺序排列，不会连接数据库
+     *
+     * @return 数据源名称
+     */
+    protected Collection<String> getSchemaNames() throws MojoExecutionException {
+        resolveSchemas();
+        return null == schemaMap ? Collections.singletonList(DEFAULT_SCHEMA) : schemaMap.keySet();
+    }
+
+    /**
+     * 是否所有数据源都从快照或DDL脚本读取表结构，此时生成结果只取决于配置与文件内容
+     *
+     * @return 不需要连接数据库时为true
+     */
+    protected boolean isFileSource() throws MojoExecutionException {
+        for (String name : getSchemaNames()) {
+            if (getSourceFiles(name).length == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 影响生成结果的配置摘要，包括插件版本，不含数据源密码、线程数等不影响生成内容的配置
+     *
+     * @return 摘要
+     */
+    protected String getConfigHash() throws MojoExecutionException {
+        Map<String, Object> data = new TreeMap<String, Object>();
+        data.put("pluginVersion", pluginVersion);
+        data.put("outputDir", outputDir);
+        data.put("fileOverride", fileOverride);
+        data.put("enableCache", enableCache);
+        data.put("author", author);
+        data.put("incremental", incremental);
+        data.put("templateEngine", templateEngine);
+        data.put("templateDir", null == templateDir ? null : templateDir.getAbsolutePath());
+        data.put("ddlDbType", ddlDbType);
+        data.put("strategy", strategy);
+        data.put("packageInfo", packageInfo);
+        data.put("dataSource", describe(dataSource));
+        if (null != schemaMap) {
+            Map<String, Object> schemaData = new LinkedHashMap<String, Object>();
+            for (Map.Entry<String, SchemaConfig> entry : schemaMap.entrySet()) {
+                Map<String, Object> schema = new TreeMap<String, Object>();
+                schema.put("packageInfo", entry.getValue().getPackageInfo());
+                schema.put("strategy", entry.getValue().getStrategy());
+                schema.put("dataSource", describe(entry.getValue().getDataSource()));
+                schemaData.put(entry.getKey(), schema);
+            }
+            data.put("schemas", schemaData);
+        }
+        return GenerateManifest.md5(JSON.toJSONString(data));
+    }
+
+    /**
+     * 数据源中影响生成结果的信息，不序列化整个对象以免调用 getConn 连接数据库
+     */
+    private static String describe(DataSourceConfig config) {
+        return null == config ? null : config.getDbType() + "|" + config.getUrl() + "|" + config.getUsername();
+    }
+
+    /**
+     * 生成所依赖的文件：各数据源的快照文件或DDL脚本，以及自定义模板目录中的文件
+     *
+     * @return 文件，按固定顺序排列
+     * @throws IOException 配置的文件不存在
+     */
+    protected List<File> getInputFiles() throws IOException, MojoExecutionException {
+        List<File> files = new ArrayList<File>();
+        for (String name : getSchemaNames()) {
+            File[] sources = getSourceFiles(name);
+            files.addAll(isLoadSnapshot() ? Arrays.asList(sources) : DdlParser.listScripts(sources));
+        }
+        if (null != templateDir) {
+            File[] templates = templateDir.listFiles();
+            if (null != templates) {
+                Arrays.sort(templates);
+                for (File template : templates) {
+                    if (template.isFile()) {
+                        files.add(template);
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * 创建单个数据源的配置，配置了快照文件时从快照读取表结构，其次从DDL脚本解析，否则连接数据库
+     *
+     * @param name 数据源名称
+     * @return 配置
+     */
+    protected ConfigBuilder createConfig(String name) throws SQLException, IOException {
+        SchemaConfig schema = getSchema(name);
+        if (isLoadSnapshot()) {
+            return createConfig(name, SchemaSnapshot.load(schemaFile(snapshotFile, name)));
+        }
+        File[] ddl = null == schema ? ddlFiles : schema.getDdlFiles();
+        DataSourceConfig dataSourceConfig = null == schema ? dataSource : schema.getDataSource();
+        if (!isEmpty(ddl)) {
+            return createConfig(name, parseDdl(name, ddl, dataSourceConfig));
+        }
+        return new ConfigBuilder(getPackageConfig(schema), dataSourceConfig, getStrategyConfig(schema), outputDir,
+                schemaFile(metadataCache, name));
+    }
+
+    /**
+     * 按数据源的包与策略配置，从给定的表结构创建配置，不连接数据库
+     *
+     * @param name     数据源名称
+     * @param snapshot 表结构
+     * @return 配置
+     */
+    protected ConfigBuilder createConfig(String name, SchemaSnapshot snapshot) {
+        SchemaConfig schema = getSchema(name);
+        return new ConfigBuilder(getPackageConfig(schema), snapshot, getStrategyConfig(schema), outputDir);
+    }
+
+    /**
+     * 数据源的表结构来源文件：快照文件或DDL脚本文件与目录，直接读取数据库时为空
+     *
+     * @param name 数据源名称
+     * @return 文件或目录
+     */
+    protected File[] getSourceFiles(String name) {
+        if (isLoadSnapshot()) {
+            return new File[]{schemaFile(snapshotFile, name)};
+        }
+        SchemaConfig schema = getSchema(name);
+        File[] ddl = null == schema ? ddlFiles : schema.getDdlFiles();
+        return isEmpty(ddl) ? new File[0] : ddl;
+    }
+
+    private SchemaConfig getSchema(String name) {
+        return null == schemaMap ? null : schemaMap.get(name);
+    }
+
+    private PackageConfig getPackageConfig(SchemaConfig schema) {
+        return null == schema || null == schema.getPackageInfo() ? packageInfo : schema.getPackageInfo();
+    }
+
+    private StrategyConfig getStrategyConfig(SchemaConfig schema) {
+        return null == schema || null == schema.getStrategy() ? strategy : schema.getStrategy();
+    }
+
+    /**
+     * 按顺序解析DDL脚本，得到表结构
+     *
+     * @param name       数据源名称
+     * @param ddl        DDL脚本文件或目录
+     * @param dataSource 数据源配置，用于确定数据库类型，可为空
+     * @return 表结构
+     */
+    private SchemaSnapshot parseDdl(String name, File[] ddl, DataSourceConfig dataSource) throws IOException {
+        DbType dbType = ddlDbType;
+        if (null == dbType && null != dataSource) {
+            dbType = dataSource.getDbType();
+        }
+        DdlParser parser = new DdlParser(dbType);
+        List<File> scripts = DdlParser.listScripts(ddl);
+        for (File script : scripts) {
+            parser.parse(script);
+        }
+        SchemaSnapshot snapshot = parser.toSnapshot();
+        log.info("[" + name + "] 解析DDL脚本 " + scripts.size() + " 个，语句 " + parser.getStatements() + " 条，得到 "
+                + snapshot.getTables().size() + " 张表");
+        return snapshot;
+    }
+
+    private static boolean isEmpty(File[] files) {
+        return null == files || files.length == 0;
+    }
+
+    /**
+     * 是否从快照文件读取表结构
+     *
+     * @return 配置了快照文件时为true
+     */
+    protected boolean isLoadSnapshot() {
+        return null != snapshotFile;
+    }
+
+    /**
+     * 多数据源时各自使用独立的表结构缓存与快照文件，文件名追加数据源名称
+     *
+     * @param file 配置的文件，可为空
+     * @param name 数据源名称
+     * @return 数据源使用的文件，未配置时为空
+     */
+    protected File schemaFile(File file, String name) {
+        if (null == file || DEFAULT_SCHEMA.equals(name)) {
+            return file;
+        }
+        String fileName = file.getName();
+        int dot = fileName.indexOf('.');
+        fileName = dot > 0 ? fileName.substring(0, dot) + "-" + name + fileName.substring(dot) : fileName + "-" + name;
+        return new File(file.getParentFile(), fileName);
+    }
+
     public String getOutputDir() {
         return outputDir;
     }
@@ -92,4 +525,52 @@ public abstract class AbstractGenerateMojo extends AbstractMojo {
         return enableCache;
     }
 
+    public boolean isWriteIfChanged() {
+        return writeIfChanged;
+    }
+
+    public int getRenderThreads() {
+        return renderThreads;
+    }
+
+    public int getWriterThreads() {
+        return writerThreads;
+    }
+
+    public String getFsync() {
+        return fsync;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public File getIncrementalManifest() {
+        return incrementalManifest;
+    }
+
+    public String getTemplateEngine() {
+        return templateEngine;
+    }
+
+    public File getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public File getTemplateDir() {
+        return templateDir;
+    }
+
+    public File[] getDdlFiles() {
+        return ddlFiles;
+    }
+
+    public File getMetricsReport() {
+        return metricsReport;
+    }
+
 }
@@ -1,54 +1,162 @@
 package com.baomidou;
 
+import com.alibaba.fastjson.JSON;
 import com.baomidou.config.ConstVal;
 import com.baomidou.config.builder.ConfigBuilder;
 import com.baomidou.config.po.TableInfo;
+import com.baomidou.generator.AsyncFileWriter;
+import com.baomidou.generator.BuiltinTemplateEngine;
+import com.baomidou.generator.GenerateManifest;
+import com.baomidou.generator.GenerateMetrics;
+import com.baomidou.generator.OutputFileWriter;
+import com.baomidou.generator.TemplateEngine;
+import com.baomidou.generator.VelocityTemplateEngine;
+import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
-import org.apache.velocity.Template;
-import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.Velocity;
-import org.apache.velocity.app.VelocityEngine;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.commons.lang.StringUtils;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.sonatype.plexus.build.incremental.BuildContext;
 
 import java.io.*;
+import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * 生成文件
  * @author YangHu
  * @since 2016/8/30
  */
-@Mojo(name = "generate", threadSafe = true)
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
 public class GenerateMojo extends AbstractGenerateMojo {
 
     /**
-     * velocity引擎
+     * 合成模板时的初始缓冲区大小
      */
-    private VelocityEngine engine;
+    private static final int RENDER_BUFFER_SIZE = 4096;
+
+    /**
+     * 模板与对应的输出文件类型，按生成顺序排列
+     */
+    protected static final Map<String, String> TEMPLATES = new LinkedHashMap<String, String>();
+
+    static {
+        TEMPLATES.put(ConstVal.TEMPLATE_ENTITY, ConstVal.ENTITY);
+        TEMPLATES.put(ConstVal.TEMPLATE_MAPPER, ConstVal.MAPPER);
+        TEMPLATES.put(ConstVal.TEMPLATE_XML, ConstVal.XML);
+        TEMPLATES.put(ConstVal.TEMPLATE_SERVICE, ConstVal.SERIVCE);
+        TEMPLATES.put(ConstVal.TEMPLATE_SERVICEIMPL, ConstVal.SERVICEIMPL);
+    }
+
+    /**
+     * 当前工程
+     */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    /**
+     * 构建上下文，在 IDE 中增量构建时用于判断输入是否变化并刷新生成的文件
+     */
+    @Component
+    private BuildContext buildContext;
+
+    /**
+     * 是否将输出目录加入工程的源码目录与资源目录（mapper xml），生成的代码随工程一起编译
+     * 只对位于 ${project.build.directory} 中的输出目录有效，其他目录（例如自定义的缓存目录）不会加入
+     */
+    @Parameter(defaultValue = "true")
+    private boolean addCompileSourceRoot;
+
     /**
-     * 输出文件
+     * 配置、模板与表结构文件（快照或DDL脚本）均未变化时跳过生成，只对不连接数据库的数据源有效
      */
-    private Map<String, String> outputFiles;
+    @Parameter(defaultValue = "true")
+    private boolean skipUnchanged;
+
+    /**
+     * 记录上次生成时输入摘要的文件
+     */
+    @Parameter(defaultValue = "${project.build.directory}/mybatisplus/generate-inputs.md5")
+    private File inputsHashFile;
+
+    /**
+     * 模板引擎
+     */
+    private TemplateEngine engine;
+    /**
+     * 文件写入工具
+     */
+    private OutputFileWriter fileWriter;
+    /**
+     * 异步写入文件的线程
+     */
+    private AsyncFileWriter asyncWriter;
+    /**
+     * 各数据源的输出文件
+     */
+    private Map<ConfigBuilder, Map<String, String>> outputFiles = new HashMap<ConfigBuilder, Map<String, String>>();
+    /**
+     * 本次生成使用的模板
+     */
+    private Collection<String> templatePaths = TEMPLATES.keySet();
+    /**
+     * 增量生成清单，未开启增量生成时为空
+     */
+    private GenerateManifest manifest;
+    /**
+     * 生成日期
+     */
+    private String date = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+    /**
+     * 模板内容摘要
+     */
+    private Map<String, String> templateHashes = new ConcurrentHashMap<String, String>();
+    /**
+     * 输出目录与其中已有的文件名，每个目录只列出一次
+     */
+    private Map<String, Set<String>> existingFiles = new ConcurrentHashMap<String, Set<String>>();
+    /**
+     * 本次生成应当存在的所有输出文件，与输入摘要一起保存
+     */
+    private Set<String> expectedFiles = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
     public void execute() throws MojoExecutionException, MojoFailureException {
         log.info("==========================准备生成文件...==========================");
+        boolean sourceRoot = addCompileSourceRoot && isInBuildDirectory();
+        if (sourceRoot) {
+            addSourceRoot();
+        }
+        // 输入未变化时跳过，不连接数据库
+        String inputsHash = getInputsHash();
+        if (isUpToDate(inputsHash)) {
+            log.info("配置、模板与表结构均未变化，跳过生成：" + getOutputDir());
+            return;
+        }
         // 初始化配置
         initConfig();
-        // 初始化输出文件路径模板
-        initOutputFiles();
-        // 创建输出文件路径
-        mkdirs(config.getPathInfo());
-        // 获取上下文
-        Map<String, VelocityContext> ctxData = analyzeData(config);
-        // 循环生成文件
-        for (Map.Entry<String, VelocityContext> ctx : ctxData.entrySet()) {
-            batchOutput(ctx.getKey(), ctx.getValue());
-        }
-        //打开输出目录
         try {
-            String osName = System.getProperty("os.name");
+            // 初始化模板引擎并预先解析模板
+            initTemplateEngine();
+            loadManifest();
+            generate(configs, TEMPLATES.keySet());
+            logTemplateParses();
+        } finally {
+            closeConfigs(configs);
+        }
+        saveInputsHash(inputsHash);
+        buildContext.refresh(new File(getOutputDir()));
+        outputMetrics();
+        //打开输出目录，生成到工程源码目录时不打开
+        try {
+            String osName = sourceRoot ? null : System.getProperty("os.name");
             if (osName != null) {
                 if (osName.contains("Mac")) {
                     Runtime.getRuntime().exec("open " + getOutputDir());
@@ -57,6 +165,8 @@ public class GenerateMojo extends AbstractGenerateMojo {
                 } else {
                     log.info("文件输出目录:" + getOutputDir());
                 }
+            } else {
+                log.info("文件输出目录:" + getOutputDir());
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -65,32 +175,242 @@ public class GenerateMojo extends AbstractGenerateMojo {
     }
 
     /**
-     * 分析数据
+     * 输出目录是否位于工程的构建目录（${project.build.directory}）中
+     */
+    private boolean isInBuildDirectory() {
+        try {
+            String buildDir = new File(project.getBuild().getDirectory()).getCanonicalPath();
+            String outputDir = new File(getOutputDir()).getCanonicalPath();
+            if (outputDir.startsWith(buildDir + File.separator)) {
+                return true;
+            }
+        } catch (IOException e) {
+            log.debug("无法判断输出目录的位置：" + e.getMessage());
+        }
+        log.debug("输出目录不在构建目录中，不加入工程源码目录：" + getOutputDir());
+        return false;
+    }
+
+    /**
+     * 将输出目录加入工程的源码目录，mapper xml 加入资源目录
+     */
+    private void addSourceRoot() {
+        String outputDir = new File(getOutputDir()).getAbsolutePath();
+        if (!project.getCompileSourceRoots().contains(outputDir)) {
+            project.addCompileSourceRoot(outputDir);
+            Resource resource = new Resource();
+            resource.setDirectory(outputDir);
+            resource.addInclude("**/*" + ConstVal.XML_SUFFIX);
+            project.addResource(resource);
+            log.debug("源码目录:" + outputDir);
+        }
+    }
+
+    /**
+     * 计算生成所依赖的输入摘要：配置与快照、DDL脚本、模板文件的内容
      *
-     * @param config 总配置信息
-     * @return 解析数据结果集
+     * @return 摘要，需要读取数据库或未开启跳过时为空
      */
-    private Map<String, VelocityContext> analyzeData(ConfigBuilder config) {
-        List<TableInfo> tableList = config.getTableInfoList();
-        Map<String, String> packageInfo = config.getPackageInfo();
-        Map<String, VelocityContext> ctxData = new HashMap<String, VelocityContext>();
-        String superClass = config.getSuperClass().substring(config.getSuperClass().lastIndexOf(".") + 1);
-        String date = new SimpleDateFormat("yyyy-MM-dd").format(new Date());
+    private String getInputsHash() throws MojoExecutionException {
+        if (!skipUnchanged || !isFileSource()) {
+            return null;
+        }
+        List<String> parts = new ArrayList<String>();
+        parts.add(getConfigHash());
+        try {
+            for (File file : getInputFiles()) {
+                parts.add(file.getAbsolutePath());
+                parts.add(GenerateManifest.md5(file));
+            }
+        } catch (IOException e) {
+            // 文件缺失等问题在生成时报告
+            log.debug("无法计算输入摘要：" + e.getMessage());
+            return null;
+        }
+        return GenerateManifest.md5(parts.toArray(new String[parts.size()]));
+    }
 
-        for (TableInfo tableInfo : tableList) {
-            VelocityContext ctx = new VelocityContext();
-            ctx.put("package", packageInfo);
-            ctx.put("table", tableInfo);
-            ctx.put("entity", tableInfo.getEntityName());
-            ctx.put("idGenType", config.getIdType());
-            ctx.put("superClassPackage", config.getSuperClass());
-            ctx.put("superClass", superClass);
-            ctx.put("enableCache", isEnableCache());
-            ctx.put("author", getAuthor());
-            ctx.put("date", date);
-            ctxData.put(tableInfo.getEntityName(), ctx);
+    /**
+     * 判断上次生成后输入是否未变化，且上次生成的文件都还存在，只对从快照或DDL脚本读取表结构的情况有效
+     * IDE 增量构建时，pom、模板或表结构文件有变化即重新生成，不再计算比较摘要
+     *
+     * @param inputsHash 输入摘要，可为空
+     * @return 是否可以跳过生成
+     */
+    private boolean isUpToDate(String inputsHash) throws MojoExecutionException {
+        // 需要读取数据库时没有输入摘要，总是重新生成
+        if (!skipUnchanged || null == inputsHash || !new File(getOutputDir()).isDirectory()
+                || !inputsHashFile.isFile()) {
+            return false;
+        }
+        if (buildContext.isIncremental()) {
+            List<File> inputs = new ArrayList<File>();
+            inputs.add(project.getFile());
+            if (null != getTemplateDir()) {
+                inputs.add(getTemplateDir());
+            }
+            for (String name : getSchemaNames()) {
+                inputs.addAll(Arrays.asList(getSourceFiles(name)));
+            }
+            boolean changed = false;
+            for (File input : inputs) {
+                changed |= null != input && buildContext.hasDelta(input);
+            }
+            if (changed) {
+                return false;
+            }
+        }
+        try {
+            // 第一行为输入摘要，之后每行为一个输出文件
+            String[] lines = FileUtils.fileRead(inputsHashFile, ConstVal.UTF8).split("\n");
+            if (!inputsHash.equals(lines[0].trim())) {
+                return false;
+            }
+            for (int i = 1; i < lines.length; i++) {
+                String file = lines[i].trim();
+                if (file.length() > 0 && !new File(file).isFile()) {
+                    log.info("生成的文件已被删除，重新生成：" + file);
+                    return false;
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
         }
-        return ctxData;
+    }
+
+    /**
+     * 保存输入摘要与本次生成的所有输出文件，下次生成时比较
+     *
+     * @param inputsHash 输入摘要，为空时删除之前的记录
+     */
+    private void saveInputsHash(String inputsHash) {
+        try {
+            if (null == inputsHash) {
+                if (inputsHashFile.exists()) {
+                    FileUtils.forceDelete(inputsHashFile);
+                }
+                return;
+            }
+            StringBuilder content = new StringBuilder(inputsHash);
+            for (String file : new TreeSet<String>(expectedFiles)) {
+                content.append('\n').append(file);
+            }
+            FileUtils.forceMkdir(inputsHashFile.getParentFile());
+            FileUtils.fileWrite(inputsHashFile, ConstVal.UTF8, content.toString());
+        } catch (IOException e) {
+            log.warn("输入摘要写入失败：" + inputsHashFile, e);
+        }
+    }
+
+    /**
+     * 按给定的模板生成各数据源中所有表的文件，等待写入完成后保存增量清单
+     * 调用前需初始化模板引擎
+     *
+     * @param schemaConfigs 数据源名称与配置
+     * @param templates     使用的模板
+     */
+    protected void generate(Map<String, ConfigBuilder> schemaConfigs, Collection<String> templates)
+            throws MojoExecutionException {
+        templatePaths = templates;
+        outputFiles.clear();
+        existingFiles.clear();
+        for (ConfigBuilder config : schemaConfigs.values()) {
+            // 初始化输出文件路径模板
+            initOutputFiles(config);
+            // 记录应当存在的输出文件，包括下面跳过的表
+            for (TableInfo tableInfo : config.getTableCatalog()) {
+                for (String file : outputFiles.get(config).values()) {
+                    expectedFiles.add(new File(String.format(file, tableInfo.getEntityName())).getAbsolutePath());
+                }
+            }
+            // 创建输出文件路径
+            mkdirs(config.getPathInfo());
+            // 跳过输出文件均已存在的表，不再读取这些表的字段信息
+            skipExistingTables(config);
+        }
+        fileWriter = new OutputFileWriter(isWriteIfChanged(), ConstVal.FSYNC_FINISH.equals(getFsync()), date);
+        asyncWriter = new AsyncFileWriter(fileWriter, Math.max(getWriterThreads(), 0));
+        // 分批读取表信息并生成文件
+        boolean finished = false;
+        try {
+            outputSchemas(schemaConfigs);
+            // 等待写入完成，按配置同步到磁盘后再保存增量清单
+            asyncWriter.finish();
+            finished = true;
+        } catch (IOException e) {
+            throw new MojoExecutionException("文件同步到磁盘失败！", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("生成文件被中断！", e);
+        } finally {
+            if (!finished) {
+                asyncWriter.abort();
+            }
+        }
+        if (null != manifest) {
+            try {
+                manifest.save(getIncrementalManifest());
+            } catch (IOException e) {
+                log.warn("增量生成清单写入失败：" + getIncrementalManifest(), e);
+            }
+        }
+        log.info("文件统计: 新建 " + fileWriter.getCreated() + "，更新 " + fileWriter.getUpdated()
+                + "，内容未变化 " + fileWriter.getUnchanged());
+    }
+
+    /**
+     * 输出各阶段耗时统计，配置了报告文件时同时写入JSON报告
+     * 多个数据源时按数据源分别统计
+     */
+    private void outputMetrics() {
+        Map<String, GenerateMetrics> schemaMetrics = new LinkedHashMap<String, GenerateMetrics>();
+        for (Map.Entry<String, ConfigBuilder> entry : configs.entrySet()) {
+            schemaMetrics.put(entry.getKey(), entry.getValue().getMetrics());
+        }
+        boolean single = schemaMetrics.size() == 1;
+        for (Map.Entry<String, GenerateMetrics> entry : schemaMetrics.entrySet()) {
+            log.info("==========================阶段耗时统计" + (single ? "" : " [" + entry.getKey() + "]")
+                    + "==========================");
+            for (String line : entry.getValue().summary()) {
+                log.info(line);
+            }
+        }
+        if (null != getMetricsReport()) {
+            try {
+                if (single) {
+                    schemaMetrics.values().iterator().next().writeJson(getMetricsReport());
+                } else {
+                    GenerateMetrics.writeJson(getMetricsReport(), schemaMetrics);
+                }
+                log.info("耗时统计报告:" + getMetricsReport());
+            } catch (IOException e) {
+                log.warn("耗时统计报告写入失败：" + getMetricsReport(), e);
+            }
+        }
+    }
+
+    /**
+     * 分析数据
+     *
+     * @param config    数据源配置
+     * @param tableInfo 表信息
+     * @return 表对应的vm上下文
+     */
+    private Map<String, Object> analyzeData(ConfigBuilder config, TableInfo tableInfo) {
+        long start = System.nanoTime();
+        Map<String, Object> ctx = new HashMap<String, Object>();
+        ctx.put("package", config.getPackageInfo());
+        ctx.put("table", tableInfo);
+        ctx.put("entity", tableInfo.getEntityName());
+        ctx.put("idGenType", config.getIdType());
+        ctx.put("superClassPackage", config.getSuperClass());
+        ctx.put("superClass", config.getSuperClass().substring(config.getSuperClass().lastIndexOf(".") + 1));
+        ctx.put("enableCache", isEnableCache());
+        ctx.put("author", getAuthor());
+        ctx.put("date", date);
+        config.getMetrics().record(GenerateMetrics.CONTEXT, start);
+        return ctx;
     }
 
     /**
@@ -112,92 +432,391 @@ public class GenerateMojo extends AbstractGenerateMojo {
 
     /**
      * 初始化输出目录
+     *
+     * @param config 数据源配置
      */
-    private void initOutputFiles() {
-        outputFiles = new HashMap<String, String>();
+    private void initOutputFiles(ConfigBuilder config) {
+        Map<String, String> files = new HashMap<String, String>();
         Map<String, String> pathInfo = config.getPathInfo();
-        outputFiles.put(ConstVal.ENTITY, pathInfo.get(ConstVal.ENTITY_PATH) + ConstVal.ENTITY_NAME);
-        outputFiles.put(ConstVal.MAPPER, pathInfo.get(ConstVal.MAPPER_PATH) + ConstVal.MAPPER_NAME);
-        outputFiles.put(ConstVal.XML, pathInfo.get(ConstVal.XML_PATH) + ConstVal.XML_NAME);
-        outputFiles.put(ConstVal.SERIVCE, pathInfo.get(ConstVal.SERIVCE_PATH) + ConstVal.SERVICE_NAME);
-        outputFiles.put(ConstVal.SERVICEIMPL, pathInfo.get(ConstVal.SERVICEIMPL_PATH) + ConstVal.SERVICEIMPL_NAME);
+        files.put(ConstVal.ENTITY, pathInfo.get(ConstVal.ENTITY_PATH) + ConstVal.ENTITY_NAME);
+        files.put(ConstVal.MAPPER, pathInfo.get(ConstVal.MAPPER_PATH) + ConstVal.MAPPER_NAME);
+        files.put(ConstVal.XML, pathInfo.get(ConstVal.XML_PATH) + ConstVal.XML_NAME);
+        files.put(ConstVal.SERIVCE, pathInfo.get(ConstVal.SERIVCE_PATH) + ConstVal.SERVICE_NAME);
+        files.put(ConstVal.SERVICEIMPL, pathInfo.get(ConstVal.SERVICEIMPL_PATH) + ConstVal.SERVICEIMPL_NAME);
+        // 只保留本次使用的模板对应的文件
+        Map<String, String> used = new HashMap<String, String>();
+        for (String templatePath : templatePaths) {
+            String type = TEMPLATES.get(templatePath);
+            used.put(type, files.get(type));
+        }
+        outputFiles.put(config, used);
     }
 
     /**
-     * 合成上下文与模板
-     *
-     * @param context vm上下文
+     * 生成所有数据源的文件
+     * 多个数据源同时读取表信息，共用同一个模板引擎、文件写入工具与生成线程池
      */
-    private void batchOutput(String entityName, VelocityContext context) {
+    private void outputSchemas(Map<String, ConfigBuilder> schemaConfigs) throws MojoExecutionException {
+        // 引擎与模板已在工作线程启动前初始化，之后可被多线程共享
+        final ExecutorService executor = getRenderThreads() > 1 ? Executors.newFixedThreadPool(getRenderThreads())
+                : null;
         try {
-            String entityFile = String.format(outputFiles.get(ConstVal.ENTITY), entityName);
-            String mapperFile = String.format(outputFiles.get(ConstVal.MAPPER), entityName);
-            String xmlFile = String.format(outputFiles.get(ConstVal.XML), entityName);
-            String serviceFile = String.format(outputFiles.get(ConstVal.SERIVCE), entityName);
-            String implFile = String.format(outputFiles.get(ConstVal.SERVICEIMPL), entityName);
-
-            // 根据override标识来判断是否需要创建文件
-            if (isCreate(entityFile)) {
-                vmToFile(context, ConstVal.TEMPLATE_ENTITY, entityFile);
+            if (schemaConfigs.size() == 1) {
+                outputTables(schemaConfigs.values().iterator().next(), executor);
+                return;
             }
-            if (isCreate(mapperFile)) {
-                vmToFile(context, ConstVal.TEMPLATE_MAPPER, mapperFile);
+            ExecutorService schemaExecutor = Executors.newFixedThreadPool(schemaConfigs.size());
+            try {
+                Map<String, Future<Void>> futures = new LinkedHashMap<String, Future<Void>>();
+                for (Map.Entry<String, ConfigBuilder> entry : schemaConfigs.entrySet()) {
+                    final ConfigBuilder config = entry.getValue();
+                    futures.put(entry.getKey(), schemaExecutor.submit(new Callable<Void>() {
+                        public Void call() throws MojoExecutionException {
+                            outputTables(config, executor);
+                            return null;
+                        }
+                    }));
+                }
+                for (Map.Entry<String, Future<Void>> entry : futures.entrySet()) {
+                    try {
+                        entry.getValue().get();
+                    } catch (ExecutionException e) {
+                        throw new MojoExecutionException("schema [" + entry.getKey() + "] 生成文件失败！", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MojoExecutionException("生成文件被中断！", e);
+            } finally {
+                schemaExecutor.shutdownNow();
             }
-            if (isCreate(xmlFile)) {
-                vmToFile(context, ConstVal.TEMPLATE_XML, xmlFile);
+        } finally {
+            if (null != executor) {
+                executor.shutdownNow();
             }
-            if (isCreate(serviceFile)) {
-                vmToFile(context, ConstVal.TEMPLATE_SERVICE, serviceFile);
+        }
+    }
+
+    /**
+     * 逐批读取表信息并生成文件，生成完成的表信息即可释放，内存占用与表的总数无关
+     * 多线程生成时以表为单位并发，同一张表的各模板共用一个上下文（模板中的#set会修改上下文），因此在同一线程中顺序合成；
+     * 读取下一批表信息的同时生成上一批文件，日志按表的顺序统一输出，避免多线程日志交错。
+     *
+     * @param config   数据源配置
+     * @param executor 生成线程池，为空时在当前线程生成
+     */
+    private void outputTables(final ConfigBuilder config, ExecutorService executor) throws MojoExecutionException {
+        List<Future<List<PendingLog>>> pending = new ArrayList<Future<List<PendingLog>>>();
+        try {
+            Iterator<List<TableInfo>> batches = config.batchIterator(getBatchSize());
+            while (batches.hasNext()) {
+                List<TableInfo> batch = batches.next();
+                List<Future<List<PendingLog>>> submitted = new ArrayList<Future<List<PendingLog>>>(batch.size());
+                for (final TableInfo tableInfo : batch) {
+                    final Map<String, Object> context = analyzeData(config, tableInfo);
+                    Callable<List<PendingLog>> task = new Callable<List<PendingLog>>() {
+                        public List<PendingLog> call() {
+                            return batchOutput(config, tableInfo.getEntityName(), context);
+                        }
+                    };
+                    if (null == executor) {
+                        // 单线程时在当前线程合成，文件仍由写入线程异步写入
+                        FutureTask<List<PendingLog>> future = new FutureTask<List<PendingLog>>(task);
+                        future.run();
+                        submitted.add(future);
+                    } else {
+                        submitted.add(executor.submit(task));
+                    }
+                }
+                // 等待上一批生成与写入完成，内存中最多同时保留两批表信息
+                awaitOutput(pending);
+                pending = submitted;
             }
-            if (isCreate(implFile)) {
-                vmToFile(context, ConstVal.TEMPLATE_SERVICEIMPL, implFile);
+            awaitOutput(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("生成文件被中断！", e);
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("生成文件失败！", e.getCause());
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw new MojoExecutionException("读取表字段信息失败：" + e.getCause().getMessage(), e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 等待文件生成完成并按顺序输出日志
+     *
+     * @param futures 生成任务
+     */
+    private void awaitOutput(List<Future<List<PendingLog>>> futures) throws InterruptedException, ExecutionException {
+        for (Future<List<PendingLog>> future : futures) {
+            logMessages(future.get());
+        }
+    }
+
+    /**
+     * 输出日志
+     *
+     * @param messages 日志信息，文件写入完成后只输出实际写入了文件的日志
+     */
+    private void logMessages(List<PendingLog> messages) throws InterruptedException, ExecutionException {
+        for (PendingLog message : messages) {
+            if (message.written.get()) {
+                log.info(message.message);
+            }
+        }
+    }
+
+    /**
+     * 合成上下文与模板
+     *
+     * @param config  数据源配置
+     * @param context vm上下文
+     * @return 生成过程的日志信息
+     */
+    private List<PendingLog> batchOutput(ConfigBuilder config, String entityName, Map<String, Object> context) {
+        List<PendingLog> messages = new ArrayList<PendingLog>();
+        GenerateMetrics metrics = config.getMetrics();
+        Map<String, String> outputFiles = this.outputFiles.get(config);
+        try {
+            String contextHash = null == manifest ? null : contextHash(context);
+            for (String templatePath : templatePaths) {
+                String outputFile = String.format(outputFiles.get(TEMPLATES.get(templatePath)), entityName);
+                output(metrics, context, contextHash, templatePath, outputFile, messages);
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
+        return messages;
+    }
+
+    /**
+     * 根据override标识与增量清单判断是否需要生成文件
+     *
+     * @param metrics      耗时统计
+     * @param context      内容对象
+     * @param contextHash  上下文摘要，未开启增量生成时为空
+     * @param templatePath 模板文件
+     * @param outputFile   文件生成的目录
+     * @param messages     日志信息
+     */
+    private void output(GenerateMetrics metrics, Map<String, Object> context, String contextHash,
+                        String templatePath, String outputFile, List<PendingLog> messages) throws IOException {
+        if (!isCreate(outputFile)) {
+            return;
+        }
+        if (null == manifest) {
+            vmToFile(metrics, context, templatePath, outputFile, messages);
+            return;
+        }
+        String hash = GenerateManifest.md5(getTemplateHash(templatePath), contextHash);
+        if (manifest.isUnchanged(outputFile, hash)) {
+            return;
+        }
+        vmToFile(metrics, context, templatePath, outputFile, messages);
+        manifest.put(outputFile, hash);
+    }
+
+    /**
+     * 计算上下文数据摘要
+     * 生成日期不参与计算，否则每天都会重新生成全部文件
+     *
+     * @param context vm上下文
+     * @return 摘要
+     */
+    private String contextHash(Map<String, Object> context) {
+        Map<String, Object> data = new TreeMap<String, Object>();
+        for (Map.Entry<String, Object> entry : context.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                value = new TreeMap<Object, Object>((Map<?, ?>) value);
+            }
+            data.put(entry.getKey(), value);
+        }
+        data.remove("date");
+        return GenerateManifest.md5(JSON.toJSONString(data));
+    }
+
+    /**
+     * 获取模板内容摘要
+     *
+     * @param templatePath 模板文件
+     * @return 摘要
+     */
+    private String getTemplateHash(String templatePath) throws IOException {
+        String hash = templateHashes.get(templatePath);
+        if (null == hash) {
+            File templateFile = VelocityTemplateEngine.getTemplateFile(getTemplateDir(), templatePath);
+            InputStream in = null == templateFile ? getClass().getResourceAsStream(templatePath)
+                    : new FileInputStream(templateFile);
+            if (null == in) {
+                throw new FileNotFoundException(templatePath);
+            }
+            try {
+                hash = GenerateManifest.md5(IOUtil.toString(in, ConstVal.UTF8));
+            } finally {
+                in.close();
+            }
+            templateHashes.put(templatePath, hash);
+        }
+        return hash;
     }
 
     /**
      * 将模板转化成为文件
      *
+     * @param metrics      耗时统计
      * @param context      内容对象
      * @param templatePath 模板文件
      * @param outputFile   文件生成的目录
+     * @param messages     日志信息
+     */
+    private void vmToFile(GenerateMetrics metrics, Map<String, Object> context, String templatePath,
+                          String outputFile, List<PendingLog> messages) throws IOException {
+        // 先合成到内存中，交给写入线程，由写入工具决定是否需要写文件
+        long start = System.nanoTime();
+        StringWriter writer = new StringWriter(RENDER_BUFFER_SIZE);
+        engine.merge(templatePath, context, writer);
+        metrics.record(GenerateMetrics.RENDER + templatePath.substring(templatePath.lastIndexOf('/') + 1), start);
+        Future<Boolean> written = asyncWriter.submit(outputFile, writer.toString().getBytes(ConstVal.UTF8), metrics);
+        messages.add(new PendingLog("模板:" + templatePath + ";  文件:" + outputFile, written));
+    }
+
+    /**
+     * 创建模板引擎并预先解析所有模板，生成文件时直接使用已解析的模板
+     */
+    protected void initTemplateEngine() throws MojoExecutionException {
+        String name = getTemplateEngine();
+        if (StringUtils.isBlank(name) || ConstVal.TEMPLATE_ENGINE_VELOCITY.equals(name)) {
+            engine = new VelocityTemplateEngine(getTemplateDir());
+        } else if (ConstVal.TEMPLATE_ENGINE_BUILTIN.equals(name)) {
+            if (null != getTemplateDir()) {
+                log.warn("builtin 模板引擎不使用自定义模板目录：" + getTemplateDir());
+            }
+            engine = new BuiltinTemplateEngine();
+        } else {
+            try {
+                engine = (TemplateEngine) Class.forName(name, true, getClass().getClassLoader())
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new MojoExecutionException("模板引擎加载失败：" + name, e);
+            } catch (ClassCastException e) {
+                throw new MojoExecutionException("模板引擎没有实现 " + TemplateEngine.class.getName() + "：" + name, e);
+            }
+        }
+        try {
+            engine.init(ConstVal.TEMPLATE_ENTITY, ConstVal.TEMPLATE_MAPPER, ConstVal.TEMPLATE_XML,
+                    ConstVal.TEMPLATE_SERVICE, ConstVal.TEMPLATE_SERVICEIMPL);
+        } catch (Exception e) {
+            throw new MojoExecutionException("模板解析失败！", e);
+        }
+        log.debug("模板引擎:" + engine.getClass().getName());
+    }
+
+    /**
+     * 输出模板实际解析的次数（debug 级别），用于确认模板没有被重复解析
      */
-    private void vmToFile(VelocityContext context, String templatePath, String outputFile) throws IOException {
-        VelocityEngine velocity = getVelocityEngine();
-        Template template = velocity.getTemplate(templatePath, ConstVal.UTF8);
-        FileOutputStream fos = new FileOutputStream(outputFile);
-        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(fos, ConstVal.UTF8));
-        template.merge(context, writer);
-        writer.close();
-        log.info("模板:" + templatePath + ";  文件:" + outputFile);
+    protected void logTemplateParses() {
+        if (engine instanceof VelocityTemplateEngine) {
+            log.debug("模板解析次数:" + ((VelocityTemplateEngine) engine).getParseCount());
+        } else if (engine instanceof BuiltinTemplateEngine) {
+            log.debug("模板解析次数:" + ((BuiltinTemplateEngine) engine).getParseCount());
+        }
+    }
+
+    /**
+     * 模板文件修改后重新解析模板，velocity 引擎只重新解析指定的模板，其他引擎重新创建
+     *
+     * @param templates 修改的模板
+     */
+    protected void reloadTemplates(Collection<String> templates) throws MojoExecutionException {
+        templateHashes.keySet().removeAll(templates);
+        if (engine instanceof VelocityTemplateEngine) {
+            try {
+                ((VelocityTemplateEngine) engine).reload(templates.toArray(new String[templates.size()]));
+            } catch (Exception e) {
+                throw new MojoExecutionException("模板解析失败：" + e.getMessage(), e);
+            }
+        } else {
+            initTemplateEngine();
+        }
+        logTemplateParses();
     }
 
     /**
-     * 设置模版引擎，主要指向获取模版路径
+     * 开启增量生成时读取增量清单
+     */
+    protected void loadManifest() {
+        if (isIncremental()) {
+            manifest = GenerateManifest.load(getIncrementalManifest());
+        }
+    }
+
+    /**
+     * 未开启覆盖时，移除所有输出文件都已存在的表
+     * 在读取字段信息之前按各输出目录的文件列表判断，这些表既不读取字段信息也不合成模板
+     *
+     * @param config 数据源配置
      */
-    private VelocityEngine getVelocityEngine() {
-        if (engine == null) {
-            Properties p = new Properties();
-            p.setProperty(ConstVal.VM_LOADPATH_KEY, ConstVal.VM_LOADPATH_VALUE);
-            p.setProperty(Velocity.FILE_RESOURCE_LOADER_PATH, "");
-            p.setProperty(Velocity.ENCODING_DEFAULT, ConstVal.UTF8);
-            p.setProperty(Velocity.INPUT_ENCODING, ConstVal.UTF8);
-            p.setProperty(Velocity.OUTPUT_ENCODING, ConstVal.UTF8);
-            p.setProperty("file.resource.loader.unicode", "true");
-            engine = new VelocityEngine(p);
+    private void skipExistingTables(ConfigBuilder config) {
+        if (isFileOverride()) {
+            return;
+        }
+        Collection<String> files = outputFiles.get(config).values();
+        List<String> skipped = new ArrayList<String>();
+        for (TableInfo tableInfo : config.getTableCatalog()) {
+            boolean allExist = true;
+            for (String file : files) {
+                if (isCreate(String.format(file, tableInfo.getEntityName()))) {
+                    allExist = false;
+                    break;
+                }
+            }
+            if (allExist) {
+                skipped.add(tableInfo.getName());
+            }
+        }
+        config.removeTables(skipped);
+        if (!skipped.isEmpty()) {
+            log.info("跳过 " + skipped.size() + " 张输出文件均已存在的表");
         }
-        return engine;
     }
 
     /**
-     * 检测文件是否存在
+     * 检测文件是否需要生成：开启覆盖或文件不存在
+     * 文件是否存在按所在目录的文件列表判断，每个目录只列出一次
      *
      * @return 是否
      */
     private boolean isCreate(String filePath) {
+        if (isFileOverride()) {
+            return true;
+        }
         File file = new File(filePath);
-        return !file.exists() || isFileOverride();
+        String dir = file.getParent();
+        Set<String> names = existingFiles.get(dir);
+        if (null == names) {
+            String[] list = new File(dir).list();
+            names = null == list ? Collections.<String>emptySet() : new HashSet<String>(Arrays.asList(list));
+            existingFiles.put(dir, names);
+        }
+        return !names.contains(file.getName());
+    }
+
+    /**
+     * 等待输出的日志，文件写入完成后根据是否实际写入决定是否输出
+     */
+    private static class PendingLog {
+
+        private final String message;
+        private final Future<Boolean> written;
+
+        PendingLog(String message, Future<Boolean> written) {
+            this.message = message;
+            this.written = written;
+        }
     }
 }
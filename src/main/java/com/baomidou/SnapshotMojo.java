@@ -0,0 +1,53 @@
+package com.baomidou;
+
+import com.baomidou.config.builder.ConfigBuilder;
+import com.baomidou.config.builder.SchemaSnapshot;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * 读取数据库表结构并保存为快照文件
+ * generate 目标配置相同的 snapshotFile 后即可在没有数据库连接的环境中生成文件
+ */
+@Mojo(name = "snapshot", threadSafe = true)
+public class SnapshotMojo extends AbstractGenerateMojo {
+
+    public void execute() throws MojoExecutionException {
+        if (null == getSnapshotFile()) {
+            throw new MojoExecutionException("请配置表结构快照文件 snapshotFile！");
+        }
+        log.info("==========================准备生成表结构快照...==========================");
+        initConfig();
+        try {
+            for (Map.Entry<String, ConfigBuilder> entry : configs.entrySet()) {
+                File file = schemaFile(getSnapshotFile(), entry.getKey());
+                SchemaSnapshot snapshot = entry.getValue().createSnapshot(getBatchSize());
+                snapshot.save(file);
+                log.info("表结构快照:" + file + "，共 " + snapshot.getTables().size() + " 张表");
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("表结构快照写入失败！", e);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw new MojoExecutionException("读取表字段信息失败：" + e.getCause().getMessage(), e.getCause());
+            }
+            throw e;
+        } finally {
+            closeConfigs(configs);
+        }
+        log.info("==========================表结构快照生成完成！！！==========================");
+    }
+
+    /**
+     * 快照目标总是连接数据库读取表结构，snapshotFile 为输出文件
+     */
+    @Override
+    protected boolean isLoadSnapshot() {
+        return false;
+    }
+}
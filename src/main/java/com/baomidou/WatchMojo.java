@@ -0,0 +1,461 @@
+package com.baomidou;
+
+import com.baomidou.config.builder.ConfigBuilder;
+import com.baomidou.config.builder.SchemaSnapshot;
+import com.baomidou.config.po.TableInfo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 监视模板与表结构的变化，只重新生成受影响的文件
+ * 启动时完整生成一次，之后模板引擎与表结构保留在内存中：
+ * 模板目录（templateDir）中的模板修改后，只用修改的模板重新生成所有表；
+ * 快照文件（snapshotFile）或DDL脚本（ddlFiles）修改后重新读取，只重新生成结构变化的表；
+ * 直接读取数据库的数据源按 pollInterval 查询表结构指纹，只重新读取并生成指纹变化的表。
+ * 监视期间总是覆盖已有文件，且只写入内容变化的文件。按 Ctrl+C 结束。
+ */
+@Mojo(name = "watch", threadSafe = true)
+public class WatchMojo extends GenerateMojo {
+
+    /**
+     * 查询数据库表结构指纹的间隔（秒），0表示不查询，只对直接读取数据库的数据源有效
+     */
+    @Parameter(defaultValue = "10")
+    private int pollInterval;
+
+    /**
+     * 文件变化后等待的时间（毫秒），合并编辑器保存时连续产生的多个事件
+     */
+    @Parameter(defaultValue = "200")
+    private long debounce;
+
+    /**
+     * 各数据源当前的表结构，生成文件时从这里读取
+     */
+    private Map<String, SchemaSnapshot> models = new LinkedHashMap<String, SchemaSnapshot>();
+
+    /**
+     * 直接读取数据库的数据源与上次查询的表结构指纹
+     */
+    private Map<String, Map<String, String>> fingerprints = new LinkedHashMap<String, Map<String, String>>();
+
+    /**
+     * 文件监视服务与监视的目录
+     */
+    private WatchService watcher;
+    private Map<WatchKey, Path> watchedDirs = new HashMap<WatchKey, Path>();
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        log.info("==========================准备生成文件并监视变化...==========================");
+        initConfig();
+        try {
+            initTemplateEngine();
+            loadManifest();
+            loadModels();
+            long start = System.nanoTime();
+            render(null, TEMPLATES.keySet());
+            log.info("生成完成，用时 " + elapsed(start) + "ms");
+            logTemplateParses();
+            startWatcher();
+            watch();
+        } catch (IOException e) {
+            throw new MojoExecutionException("监视文件变化失败！", e);
+        } finally {
+            if (null != watcher) {
+                try {
+                    watcher.close();
+                } catch (IOException e) {
+                    log.warn("关闭文件监视失败", e);
+                }
+            }
+            closeConfigs(configs);
+        }
+    }
+
+    /**
+     * 监视期间总是覆盖已有文件，修改模板或表结构后文件才能更新
+     */
+    @Override
+    public boolean isFileOverride() {
+        return true;
+    }
+
+    /**
+     * 监视期间只写入内容变化的文件，避免引起无关文件的重新编译
+     */
+    @Override
+    public boolean isWriteIfChanged() {
+        return true;
+    }
+
+    /**
+     * 读取各数据源的全部表结构，直接读取数据库的数据源同时记录表结构指纹
+     */
+    private void loadModels() throws MojoExecutionException {
+        for (Map.Entry<String, ConfigBuilder> entry : configs.entrySet()) {
+            String name = entry.getKey();
+            try {
+                models.put(name, entry.getValue().createSnapshot(getBatchSize()));
+            } catch (RuntimeException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw new MojoExecutionException("读取表字段信息失败：" + e.getCause().getMessage(), e.getCause());
+                }
+                throw e;
+            }
+            if (getSourceFiles(name).length == 0 && pollInterval > 0) {
+                try {
+                    fingerprints.put(name, entry.getValue().queryFingerprints());
+                } catch (SQLException e) {
+                    log.warn("[" + name + "] 查询表结构指纹失败，不再监视数据库表结构：" + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 注册模板目录与快照、DDL脚本所在的目录
+     */
+    private void startWatcher() throws IOException, MojoExecutionException {
+        watcher = FileSystems.getDefault().newWatchService();
+        if (null != getTemplateDir()) {
+            if (!getTemplateDir().isDirectory()) {
+                throw new MojoExecutionException("模板目录不存在：" + getTemplateDir());
+            }
+            register(getTemplateDir());
+        }
+        for (String name : models.keySet()) {
+            for (File location : getSourceFiles(name)) {
+                if (location.isDirectory()) {
+                    registerAll(location);
+                } else {
+                    register(location.getAbsoluteFile().getParentFile());
+                }
+            }
+        }
+        if (watchedDirs.isEmpty() && fingerprints.isEmpty()) {
+            throw new MojoExecutionException("没有可监视的内容：请配置 templateDir、snapshotFile、ddlFiles，"
+                    + "或直接读取数据库并设置 pollInterval 大于0");
+        }
+    }
+
+    private void register(File dir) throws IOException {
+        Path path = dir.getAbsoluteFile().toPath();
+        if (watchedDirs.containsValue(path)) {
+            return;
+        }
+        WatchKey key = path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        watchedDirs.put(key, path);
+        log.debug("监视目录:" + path);
+    }
+
+    private void registerAll(File dir) throws IOException {
+        register(dir);
+        File[] children = dir.listFiles();
+        if (null != children) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    registerAll(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待文件变化或到达查询数据库的时间，处理后继续等待，直到线程被中断
+     */
+    private void watch() throws IOException {
+        long pollMillis = fingerprints.isEmpty() ? 0 : pollInterval * 1000L;
+        long nextPoll = System.currentTimeMillis() + pollMillis;
+        log.info("==========================正在监视模板与表结构的变化，按 Ctrl+C 结束==========================");
+        while (!Thread.currentThread().isInterrupted()) {
+            Set<String> templates = new LinkedHashSet<String>();
+            Set<String> schemas = new LinkedHashSet<String>();
+            try {
+                WatchKey key = pollMillis > 0
+                        ? watcher.poll(Math.max(nextPoll - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS)
+                        : watcher.take();
+                if (null != key) {
+                    collectChanges(key, templates, schemas);
+                    // 合并连续产生的事件
+                    Thread.sleep(Math.max(debounce, 0));
+                    while (null != (key = watcher.poll())) {
+                        collectChanges(key, templates, schemas);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            if (!templates.isEmpty()) {
+                templatesChanged(templates);
+            }
+            if (!schemas.isEmpty()) {
+                sourceFilesChanged(schemas);
+            }
+            if (pollMillis > 0 && System.currentTimeMillis() >= nextPoll) {
+                pollDatabase();
+                nextPoll = System.currentTimeMillis() + pollMillis;
+            }
+        }
+    }
+
+    /**
+     * 按变化的文件找出受影响的模板与数据源
+     */
+    private void collectChanges(WatchKey key, Set<String> templates, Set<String> schemas) throws IOException {
+        Path dir = watchedDirs.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 事件过多时丢失了部分事件，全部重新读取
+                if (null != getTemplateDir()) {
+                    templates.addAll(TEMPLATES.keySet());
+                }
+                for (String name : models.keySet()) {
+                    if (getSourceFiles(name).length > 0) {
+                        schemas.add(name);
+                    }
+                }
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+            File file = path.toFile();
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && file.isDirectory()) {
+                registerAll(file);
+            }
+            if (null != getTemplateDir() && dir.equals(getTemplateDir().getAbsoluteFile().toPath())) {
+                for (String templatePath : TEMPLATES.keySet()) {
+                    if (templatePath.endsWith("/" + file.getName())) {
+                        templates.add(templatePath);
+                    }
+                }
+            }
+            for (String name : models.keySet()) {
+                for (File location : getSourceFiles(name)) {
+                    Path locationPath = location.getAbsoluteFile().toPath();
+                    if (path.equals(locationPath) || (path.startsWith(locationPath)
+                            && file.getName().toLowerCase().endsWith(".sql"))) {
+                        schemas.add(name);
+                    }
+                }
+            }
+        }
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+    }
+
+    /**
+     * 模板修改后重新解析，只用修改的模板重新生成所有表
+     */
+    private void templatesChanged(Set<String> templates) {
+        long start = System.nanoTime();
+        try {
+            reloadTemplates(templates);
+            render(null, templates);
+            log.info("模板 " + templates + " 已修改，重新生成完成，用时 " + elapsed(start) + "ms");
+        } catch (MojoExecutionException e) {
+            // 模板有误时保留之前解析的模板，修改后再次生成
+            log.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 快照文件或DDL脚本修改后重新读取，只重新生成结构变化的表
+     */
+    private void sourceFilesChanged(Set<String> schemas) {
+        long start = System.nanoTime();
+        Map<String, Set<String>> changedTables = new LinkedHashMap<String, Set<String>>();
+        for (String name : schemas) {
+            SchemaSnapshot snapshot;
+            try {
+                ConfigBuilder source = createConfig(name);
+                try {
+                    snapshot = source.createSnapshot(getBatchSize());
+                } finally {
+                    source.close();
+                }
+            } catch (IOException e) {
+                log.error("[" + name + "] 读取表结构失败，保留之前的表结构：" + e.getMessage());
+                continue;
+            } catch (SQLException e) {
+                log.error("[" + name + "] 读取表结构失败，保留之前的表结构：" + e.getMessage());
+                continue;
+            }
+            changedTables.put(name, changed(name, snapshot.changedTables(models.get(name)),
+                    removedTables(models.get(name), snapshot)));
+            models.put(name, snapshot);
+        }
+        renderChanged(changedTables, start);
+    }
+
+    /**
+     * 查询数据库表结构指纹，只重新读取指纹变化的表
+     */
+    private void pollDatabase() {
+        long start = System.nanoTime();
+        Map<String, Set<String>> changedTables = new LinkedHashMap<String, Set<String>>();
+        for (Map.Entry<String, Map<String, String>> entry : fingerprints.entrySet()) {
+            String name = entry.getKey();
+            ConfigBuilder config = configs.get(name);
+            try {
+                Map<String, String> current = config.queryFingerprints();
+                Map<String, String> previous = entry.getValue();
+                Set<String> changed = new LinkedHashSet<String>();
+                for (Map.Entry<String, String> fingerprint : current.entrySet()) {
+                    if (!fingerprint.getValue().equals(previous.get(fingerprint.getKey()))) {
+                        changed.add(fingerprint.getKey());
+                    }
+                }
+                Set<String> removed = new LinkedHashSet<String>(previous.keySet());
+                removed.removeAll(current.keySet());
+                if (changed.isEmpty() && removed.isEmpty()) {
+                    continue;
+                }
+                // 只读取变化的表的字段信息，更新到内存中的表结构
+                config.reloadCatalog();
+                List<String> unchanged = new ArrayList<String>();
+                for (TableInfo tableInfo : config.getTableCatalog()) {
+                    if (!changed.contains(tableInfo.getName())) {
+                        unchanged.add(tableInfo.getName());
+                    }
+                }
+                config.removeTables(unchanged);
+                SchemaSnapshot model = models.get(name);
+                Map<String, SchemaSnapshot.Table> tables = new LinkedHashMap<String, SchemaSnapshot.Table>();
+                for (SchemaSnapshot.Table table : model.getTables()) {
+                    if (!removed.contains(table.getName())) {
+                        tables.put(table.getName(), table);
+                    }
+                }
+                for (SchemaSnapshot.Table table : config.createSnapshot(getBatchSize()).getTables()) {
+                    tables.put(table.getName(), table);
+                }
+                model.setTables(new ArrayList<SchemaSnapshot.Table>(tables.values()));
+                // 表结构更新后才记录新的指纹，失败时下次轮询重新读取这些表
+                entry.setValue(current);
+                changedTables.put(name, changed(name, changed, removed));
+            } catch (SQLException e) {
+                log.warn("[" + name + "] 查询数据库表结构失败：" + e.getMessage());
+                reconnect(name);
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof SQLException)) {
+                    throw e;
+                }
+                log.warn("[" + name + "] 读取表字段信息失败：" + e.getCause().getMessage());
+                reconnect(name);
+            }
+        }
+        renderChanged(changedTables, start);
+    }
+
+    /**
+     * 查询失败后关闭数据源的连接并重新建立，连接断开后下次轮询仍可继续监视
+     *
+     * @param name 数据源名称
+     */
+    private void reconnect(String name) {
+        configs.get(name).close();
+        try {
+            configs.put(name, createConfig(name));
+        } catch (SQLException e) {
+            log.warn("[" + name + "] 重新连接数据库失败，下次轮询时重试：" + e.getMessage());
+        } catch (IOException e) {
+            log.warn("[" + name + "] 重新连接数据库失败，下次轮询时重试：" + e.getMessage());
+        }
+    }
+
+    private Set<String> changed(String name, Set<String> changed, Collection<String> removed) {
+        if (!changed.isEmpty()) {
+            log.info("[" + name + "] 表结构变化：" + changed);
+        }
+        if (!removed.isEmpty()) {
+            log.info("[" + name + "] 表已删除：" + removed + "，已生成的文件不会删除");
+        }
+        return changed;
+    }
+
+    private static Set<String> removedTables(SchemaSnapshot previous, SchemaSnapshot current) {
+        Set<String> removed = new LinkedHashSet<String>();
+        for (SchemaSnapshot.Table table : previous.getTables()) {
+            removed.add(table.getName());
+        }
+        for (SchemaSnapshot.Table table : current.getTables()) {
+            removed.remove(table.getName());
+        }
+        return removed;
+    }
+
+    private void renderChanged(Map<String, Set<String>> changedTables, long start) {
+        int count = 0;
+        for (Set<String> tables : changedTables.values()) {
+            count += tables.size();
+        }
+        if (count == 0) {
+            return;
+        }
+        try {
+            render(changedTables, TEMPLATES.keySet());
+            log.info("重新生成 " + count + " 张表完成，用时 " + elapsed(start) + "ms");
+        } catch (MojoExecutionException e) {
+            log.error(e.getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 从内存中的表结构生成文件
+     *
+     * @param changedTables 各数据源需要生成的表，为空时生成所有数据源的所有表
+     * @param templates     使用的模板
+     */
+    private void render(Map<String, Set<String>> changedTables, Collection<String> templates)
+            throws MojoExecutionException {
+        Map<String, ConfigBuilder> renderConfigs = new LinkedHashMap<String, ConfigBuilder>();
+        for (Map.Entry<String, SchemaSnapshot> entry : models.entrySet()) {
+            Set<String> tables = null == changedTables ? null : changedTables.get(entry.getKey());
+            if (null != changedTables && (null == tables || tables.isEmpty())) {
+                continue;
+            }
+            SchemaSnapshot model = entry.getValue();
+            SchemaSnapshot snapshot = new SchemaSnapshot();
+            snapshot.setDbType(model.getDbType());
+            for (SchemaSnapshot.Table table : model.getTables()) {
+                if (null == tables || tables.contains(table.getName())) {
+                    snapshot.getTables().add(table);
+                }
+            }
+            renderConfigs.put(entry.getKey(), createConfig(entry.getKey(), snapshot));
+        }
+        if (!renderConfigs.isEmpty()) {
+            generate(renderConfigs, templates);
+        }
+    }
+
+    private static long elapsed(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
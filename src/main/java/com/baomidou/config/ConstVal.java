@@ -45,4 +45,14 @@ public class ConstVal {
     // 配置使用classloader加载资源
     public static final String VM_LOADPATH_KEY = "file.resource.loader.class";
     public static final String VM_LOADPATH_VALUE = "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader";
+    public static final String VM_CACHE_KEY = "file.resource.loader.cache";
+    public static final String VM_CHECK_INTERVAL_KEY = "file.resource.loader.modificationCheckInterval";
+
+    // 模板引擎
+    public static final String TEMPLATE_ENGINE_VELOCITY = "velocity";
+    public static final String TEMPLATE_ENGINE_BUILTIN = "builtin";
+
+    // 文件同步到磁盘的策略
+    public static final String FSYNC_NONE = "none";
+    public static final String FSYNC_FINISH = "finish";
 }
@@ -6,6 +6,10 @@ import org.apache.maven.plugins.annotations.Parameter;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLInvalidAuthorizationSpecException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.Properties;
 
 /**
  * 数据库配置
@@ -40,11 +44,36 @@ public class DataSourceConfig {
      */
     @Parameter(required = true)
     private String password;
+    /**
+     * 建立连接的超时时间（秒），0表示不限制
+     */
+    @Parameter(defaultValue = "10")
+    private int connectTimeout = 10;
+    /**
+     * 网络读取的超时时间（秒），0表示不限制
+     */
+    @Parameter(defaultValue = "120")
+    private int socketTimeout = 120;
+    /**
+     * 每条查询语句的超时时间（秒），0表示不限制
+     */
+    @Parameter(defaultValue = "60")
+    private int queryTimeout = 60;
+    /**
+     * 连接失败时的重试次数，只重试网络中断、超时等暂时性错误
+     */
+    @Parameter(defaultValue = "2")
+    private int retries = 2;
+    /**
+     * 首次重试前的等待时间（毫秒），之后每次重试等待时间加倍
+     */
+    @Parameter(defaultValue = "1000")
+    private long retryInterval = 1000;
 
     /**
      * 判断数据库类型
      *
-     * @return 类型枚举值
+     * @return 类型枚举值，驱动既不是 MySQL 也不是 Oracle 时为 OTHER
      */
     public DbType getDbType() {
         if (null == dbType) {
@@ -52,27 +81,104 @@ public class DataSourceConfig {
                 dbType = DbType.MYSQL;
             } else if (driverName.contains("oracle")) {
                 dbType = DbType.ORACLE;
+            } else {
+                dbType = DbType.OTHER;
             }
         }
         return dbType;
     }
 
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getQueryTimeout() {
+        return queryTimeout;
+    }
+
     /**
-     * 创建数据库连接对象
+     * 创建数据库连接对象，暂时性错误按配置的次数重试，每次等待时间加倍
      *
      * @return Connection
+     * @throws SQLException 驱动加载失败、认证失败等不可恢复的错误，或重试后仍无法连接
      */
-    public Connection getConn() {
-        Connection conn = null;
+    public Connection getConn() throws SQLException {
         try {
             Class.forName(driverName);
-            conn = DriverManager.getConnection(url, username, password);
         } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        } catch (SQLException e) {
-            e.printStackTrace();
+            throw new SQLException("数据库驱动加载失败：" + driverName + "，请在插件的 dependencies 中添加驱动依赖", e);
+        }
+        Properties info = connectProperties();
+        long interval = retryInterval;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Connection conn = DriverManager.getConnection(url, info);
+                if (null == conn) {
+                    throw new SQLException("没有可以处理该URL的数据库驱动：" + url);
+                }
+                return conn;
+            } catch (SQLException e) {
+                if (attempt >= retries || !isTransient(e)) {
+                    throw new SQLException("数据库连接失败：" + url + "，" + e.getMessage(), e.getSQLState(), e);
+                }
+                System.err.println("数据库连接失败，" + interval + "ms 后重试（" + (attempt + 1) + "/" + retries + "）："
+                        + e.getMessage());
+                try {
+                    Thread.sleep(interval);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("数据库连接被中断：" + url, e);
+                }
+                interval *= 2;
+            }
+        }
+    }
+
+    /**
+     * 连接属性，包括 MySQL 与 Oracle 驱动的连接与读取超时设置
+     * 其他驱动的超时属性名称与单位各不相同（例如 PostgreSQL 以秒为单位），不设置，需要时在 url 中配置
+     */
+    private Properties connectProperties() {
+        Properties info = new Properties();
+        if (null != username) {
+            info.setProperty("user", username);
+        }
+        if (null != password) {
+            info.setProperty("password", password);
+        }
+        if (DbType.ORACLE == getDbType()) {
+            if (connectTimeout > 0) {
+                info.setProperty("oracle.net.CONNECT_TIMEOUT", String.valueOf(connectTimeout * 1000L));
+            }
+            if (socketTimeout > 0) {
+                info.setProperty("oracle.jdbc.ReadTimeout", String.valueOf(socketTimeout * 1000L));
+            }
+        } else if (DbType.MYSQL == getDbType()) {
+            if (connectTimeout > 0) {
+                info.setProperty("connectTimeout", String.valueOf(connectTimeout * 1000L));
+            }
+            if (socketTimeout > 0) {
+                info.setProperty("socketTimeout", String.valueOf(socketTimeout * 1000L));
+            }
+        }
+        return info;
+    }
+
+    /**
+     * 是否为可重试的暂时性错误：网络中断、超时等，SQLState 以 08 开头的连接错误也视为暂时性错误
+     */
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLInvalidAuthorizationSpecException) {
+            return false;
+        }
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
         }
-        return conn;
+        return null != e.getSQLState() && e.getSQLState().startsWith("08");
     }
 
 }
@@ -0,0 +1,62 @@
+package com.baomidou.config;
+
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+
+/**
+ * 多数据源（多schema）生成时单个数据源的配置
+ * 未配置的包与策略使用插件的全局配置
+ */
+public class SchemaConfig {
+
+    /**
+     * 名称，用于日志、耗时统计与表结构缓存文件名，默认为 schema 加序号
+     */
+    @Parameter
+    private String name;
+
+    /**
+     * 数据源配置，从快照或DDL脚本生成时不需要
+     */
+    @Parameter
+    private DataSourceConfig dataSource;
+
+    /**
+     * DDL脚本文件或目录，配置后从脚本解析表结构，不再连接数据库
+     */
+    @Parameter
+    private File[] ddlFiles;
+
+    /**
+     * 包配置，为空时使用全局配置
+     */
+    @Parameter
+    private PackageConfig packageInfo;
+
+    /**
+     * 策略配置，为空时使用全局配置
+     */
+    @Parameter
+    private StrategyConfig strategy;
+
+    public String getName() {
+        return name;
+    }
+
+    public DataSourceConfig getDataSource() {
+        return dataSource;
+    }
+
+    public File[] getDdlFiles() {
+        return ddlFiles;
+    }
+
+    public PackageConfig getPackageInfo() {
+        return packageInfo;
+    }
+
+    public StrategyConfig getStrategy() {
+        return strategy;
+    }
+}
@@ -5,6 +5,8 @@ import com.baomidou.config.rules.IdStrategy;
 import com.baomidou.config.rules.NamingStrategy;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import java.util.Map;
+
 /**
  * 策略配置项
  *
@@ -49,6 +51,38 @@ public class StrategyConfig {
     @Parameter
     private String[] exclude = null;
 
+    /**
+     * 是否使用 show table status 查询表信息（默认false，只查询表名和注释，避免计算表统计信息）
+     */
+    @Parameter(defaultValue = "false")
+    private boolean showTableStatus;
+
+    /**
+     * 是否一次性查询所有表的字段信息（默认false，逐表查询）
+     */
+    @Parameter(defaultValue = "false")
+    private boolean bulkQuery;
+
+    /**
+     * 是否通过 JDBC DatabaseMetaData 读取表结构（默认false，使用各数据库的查询语句）
+     * 表、字段与主键各查询一次，可识别联合主键
+     */
+    @Parameter(defaultValue = "false")
+    private boolean useMetaData;
+
+    /**
+     * 并发读取表结构的连接数（默认1，顺序读取）
+     */
+    @Parameter(defaultValue = "1")
+    private int parallelism = 1;
+
+    /**
+     * 自定义字段类型映射，键为不带长度的字段类型（忽略大小写），值为JAVA类型，优先于默认映射
+     * 例如：&lt;tinyint&gt;Boolean&lt;/tinyint&gt;
+     */
+    @Parameter
+    private Map<String, String> typeMappings;
+
     public NamingStrategy getNaming() {
         return naming;
     }
@@ -73,4 +107,24 @@ public class StrategyConfig {
         return superServiceClass;
     }
 
+    public boolean isShowTableStatus() {
+        return showTableStatus;
+    }
+
+    public boolean isBulkQuery() {
+        return bulkQuery;
+    }
+
+    public boolean isUseMetaData() {
+        return useMetaData;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public Map<String, String> getTypeMappings() {
+        return typeMappings;
+    }
+
 }
@@ -7,7 +7,7 @@ import com.baomidou.config.StrategyConfig;
 import com.baomidou.config.po.TableField;
 import com.baomidou.config.po.TableInfo;
 import com.baomidou.config.rules.*;
-import javafx.scene.control.Tab;
+import com.baomidou.generator.GenerateMetrics;
 import org.apache.commons.lang.StringUtils;
 
 import java.io.File;
@@ -16,6 +16,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * 配置汇总 传递给文件生成工具
@@ -25,10 +26,39 @@ import java.util.*;
  */
 public class ConfigBuilder {
 
+    /**
+     * SQL中IN列表的最大长度
+     */
+    private static final int MAX_IN_SIZE = 1000;
+
+    /**
+     * 数据源配置
+     */
+    private DataSourceConfig dataSourceConfig;
     /**
      * SQL连接
      */
     private Connection connection;
+    /**
+     * 表结构缓存文件，为空时不使用缓存
+     */
+    private File metadataCacheFile;
+    /**
+     * 表结构缓存
+     */
+    private MetadataCache metadataCache;
+    /**
+     * 表结构指纹，使用缓存时有效
+     */
+    private Map<String, String> fingerprints;
+    /**
+     * 使用缓存时重新读取结构的表数量
+     */
+    private int reloadedTables;
+    /**
+     * 策略配置
+     */
+    private StrategyConfig strategyConfig;
     /**
      * SQL语句类型
      */
@@ -42,9 +72,44 @@ public class ConfigBuilder {
      */
     private String idType;
     /**
-     * 数据库表信息
+     * 数据库表信息，字段信息按需加载
      */
     private List<TableInfo> tableInfoList;
+    /**
+     * 是否已加载全部表的字段信息
+     */
+    private boolean fieldsLoaded;
+
+    /**
+     * 各阶段耗时统计
+     */
+    private final GenerateMetrics metrics = new GenerateMetrics();
+
+    /**
+     * 名称转换，字段名的转换结果在各表之间共用
+     */
+    private NameConverter nameConverter;
+
+    /**
+     * 字段类型映射
+     */
+    private TypeMappingRegistry typeMappingRegistry;
+
+    /**
+     * 表结构快照中的表，从快照读取表结构时有效
+     */
+    private Map<String, SchemaSnapshot.Table> snapshotTables;
+
+    /**
+     * 通过 DatabaseMetaData 读取表结构，未启用时为空
+     */
+    private MetaDataIntrospector introspector;
+
+    /**
+     * 并发读取字段信息的连接池与线程池，首次并发读取时创建，在 {@link #close()} 中释放
+     */
+    private ConnectionPool pool;
+    private ExecutorService executor;
 
     /**
      * 包配置详情
@@ -63,12 +128,62 @@ public class ConfigBuilder {
      * @param packageConfig    包配置
      * @param dataSourceConfig 数据源配置
      * @param strategyConfig   表配置
+     * @throws SQLException 无法连接数据库或读取表信息失败
      */
     public ConfigBuilder(PackageConfig packageConfig, DataSourceConfig dataSourceConfig,
-                         StrategyConfig strategyConfig, String outputDir) {
+                         StrategyConfig strategyConfig, String outputDir) throws SQLException {
+        this(packageConfig, dataSourceConfig, strategyConfig, outputDir, null);
+    }
+
+    /**
+     * 在构造器中处理配置
+     *
+     * @param outputDir         输出目录
+     * @param packageConfig     包配置
+     * @param dataSourceConfig  数据源配置
+     * @param strategyConfig    表配置
+     * @param metadataCacheFile 表结构缓存文件，为空时不使用缓存
+     * @throws SQLException 无法连接数据库或读取表信息失败
+     */
+    public ConfigBuilder(PackageConfig packageConfig, DataSourceConfig dataSourceConfig,
+                         StrategyConfig strategyConfig, String outputDir, File metadataCacheFile)
+            throws SQLException {
+        this.metadataCacheFile = metadataCacheFile;
         handlerPackage(outputDir, packageConfig);
         handlerDataSource(dataSourceConfig);
-        handlerStrategy(strategyConfig);
+        try {
+            handlerStrategy(strategyConfig);
+        } catch (SQLException e) {
+            closeConnection();
+            throw e;
+        } catch (RuntimeException e) {
+            closeConnection();
+            throw e;
+        }
+    }
+
+    /**
+     * 从表结构快照读取表结构，不连接数据库
+     *
+     * @param outputDir      输出目录
+     * @param packageConfig  包配置
+     * @param snapshot       表结构快照
+     * @param strategyConfig 表配置
+     */
+    public ConfigBuilder(PackageConfig packageConfig, SchemaSnapshot snapshot, StrategyConfig strategyConfig,
+                         String outputDir) {
+        handlerPackage(outputDir, packageConfig);
+        querySQL = getQuerySQL(snapshot.getDbType());
+        snapshotTables = new LinkedHashMap<String, SchemaSnapshot.Table>();
+        for (SchemaSnapshot.Table table : snapshot.getTables()) {
+            snapshotTables.put(table.getName(), table);
+        }
+        try {
+            handlerStrategy(strategyConfig);
+        } catch (SQLException e) {
+            // 快照中读取不会访问数据库
+            throw new IllegalStateException(e);
+        }
     }
 
     //************************ 曝露方法 BEGIN*****************************
@@ -110,14 +225,186 @@ public class ConfigBuilder {
     }
 
     /**
-     * 表信息
+     * 表信息，首次调用时加载所有表的字段信息
+     * 表较多时建议使用 {@link #batchIterator(int)} 分批处理，避免所有字段信息同时驻留内存
      *
      * @return 所有表信息
      */
     public List<TableInfo> getTableInfoList() {
+        if (!fieldsLoaded) {
+            try {
+                loadTableFields(tableInfoList);
+            } catch (SQLException e) {
+                throw new RuntimeException("读取表字段信息失败！", e);
+            }
+            fieldsLoaded = true;
+        }
         return tableInfoList;
     }
 
+    /**
+     * 表的基本信息（表名、注释与各文件的类名），不含字段信息，不会触发字段信息的读取
+     *
+     * @return 表信息
+     */
+    public List<TableInfo> getTableCatalog() {
+        return Collections.unmodifiableList(tableInfoList);
+    }
+
+    /**
+     * 移除不需要生成文件的表，之后不再读取这些表的字段信息
+     *
+     * @param tableNames 表名
+     */
+    public void removeTables(Collection<String> tableNames) {
+        if (tableNames.isEmpty()) {
+            return;
+        }
+        Set<String> names = new HashSet<String>(tableNames);
+        List<TableInfo> retained = new ArrayList<TableInfo>(tableInfoList.size());
+        for (TableInfo tableInfo : tableInfoList) {
+            if (!names.contains(tableInfo.getName())) {
+                retained.add(tableInfo);
+            }
+        }
+        tableInfoList = retained;
+    }
+
+    /**
+     * 查询当前各表的结构指纹，只包含 include/exclude 范围内的表，用于判断表结构是否变化
+     *
+     * @return 表名与指纹的映射
+     * @throws SQLException 查询失败，或从快照读取表结构时没有数据库连接
+     */
+    public Map<String, String> queryFingerprints() throws SQLException {
+        if (null == connection) {
+            throw new SQLException("未连接数据库，无法查询表结构指纹");
+        }
+        if (null == querySQL) {
+            throw new SQLException("数据库类型 " + dataSourceConfig.getDbType() + " 不支持查询表结构指纹");
+        }
+        String[] include = strategyConfig.getInclude();
+        String[] exclude = strategyConfig.getExclude();
+        String filter;
+        if (null != include && include.length > 0) {
+            filter = tableFilter(querySQL.getFieldTableName(), include, false);
+        } else if (null != exclude && exclude.length > 0) {
+            filter = tableFilter(querySQL.getFieldTableName(), exclude, true);
+        } else {
+            filter = "";
+        }
+        return getFingerprints(filter);
+    }
+
+    /**
+     * 重新读取表清单，之前移除的表也重新加入，字段信息在之后按需读取
+     *
+     * @throws SQLException 读取表信息失败
+     */
+    public void reloadCatalog() throws SQLException {
+        tableInfoList = getTablesInfo(strategyConfig);
+        fieldsLoaded = false;
+    }
+
+    /**
+     * 读取所有表的结构并生成快照，按批读取字段信息
+     *
+     * @param batchSize 每批的表数量
+     * @return 表结构快照
+     */
+    public SchemaSnapshot createSnapshot(int batchSize) {
+        SchemaSnapshot snapshot = new SchemaSnapshot();
+        if (null != dataSourceConfig) {
+            snapshot.setDbType(dataSourceConfig.getDbType());
+            snapshot.setSource(dataSourceConfig.getUrl() + "|" + dataSourceConfig.getUsername());
+        } else {
+            snapshot.setDbType(null == querySQL ? DbType.OTHER
+                    : querySQL == QuerySQL.ORACLE ? DbType.ORACLE : DbType.MYSQL);
+        }
+        snapshot.setTimestamp(System.currentTimeMillis());
+        Iterator<List<TableInfo>> batches = batchIterator(batchSize);
+        while (batches.hasNext()) {
+            snapshot.addTables(batches.next());
+        }
+        return snapshot;
+    }
+
+    /**
+     * 各阶段耗时统计，生成文件的阶段也记录在其中
+     *
+     * @return 耗时统计
+     */
+    public GenerateMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 分批读取表信息，每次读取一批表的字段信息
+     * 返回的表信息为独立的对象，处理完成后即可释放
+     *
+     * @param batchSize 每批的表数量
+     * @return 批次迭代器
+     */
+    public Iterator<List<TableInfo>> batchIterator(final int batchSize) {
+        final int size = Math.max(batchSize, 1);
+        return new Iterator<List<TableInfo>>() {
+            private int index;
+
+            public boolean hasNext() {
+                return index < tableInfoList.size();
+            }
+
+            public List<TableInfo> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int end = Math.min(index + size, tableInfoList.size());
+                List<TableInfo> batch = new ArrayList<TableInfo>(end - index);
+                for (TableInfo tableInfo : tableInfoList.subList(index, end)) {
+                    batch.add(copyTable(tableInfo));
+                }
+                index = end;
+                try {
+                    loadTableFields(batch);
+                } catch (SQLException e) {
+                    throw new RuntimeException("读取表字段信息失败！", e);
+                }
+                return batch;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * 释放数据库连接，使用表结构缓存时写入缓存文件
+     */
+    public void close() {
+        if (null != metadataCache) {
+            metadataCache.save(metadataCacheFile);
+        }
+        if (null != executor) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        if (null != pool) {
+            pool.close();
+            pool = null;
+        }
+        closeConnection();
+    }
+
+    /**
+     * 使用表结构缓存时重新读取结构的表数量
+     *
+     * @return 表数量，未使用表结构缓存时为 -1
+     */
+    public int getReloadedTables() {
+        return null == metadataCache ? -1 : reloadedTables;
+    }
+
     //****************************** 曝露方法 END**********************************
 
     /**
@@ -146,8 +433,11 @@ public class ConfigBuilder {
      *
      * @param config DataSourceConfig
      */
-    private void handlerDataSource(DataSourceConfig config) {
+    private void handlerDataSource(DataSourceConfig config) throws SQLException {
+        dataSourceConfig = config;
+        long start = System.nanoTime();
         connection = config.getConn();
+        metrics.record(GenerateMetrics.CONNECT, start);
         querySQL = getQuerySQL(config.getDbType());
     }
 
@@ -157,7 +447,10 @@ public class ConfigBuilder {
      *
      * @param config StrategyConfig
      */
-    private void handlerStrategy(StrategyConfig config) {
+    private void handlerStrategy(StrategyConfig config) throws SQLException {
+        strategyConfig = config;
+        nameConverter = new NameConverter(config.getNaming());
+        typeMappingRegistry = new TypeMappingRegistry(querySQL, config.getTypeMappings());
         processTypes(config);
         tableInfoList = getTablesInfo(config);
     }
@@ -194,12 +487,11 @@ public class ConfigBuilder {
      * 处理表对应的类名称
      *
      * @param tableList 表名称
-     * @param strategy  命名策略
      * @return 补充完整信息后的表
      */
-    private List<TableInfo> processTable(List<TableInfo> tableList, NamingStrategy strategy) {
+    private List<TableInfo> processTable(List<TableInfo> tableList) {
         for (TableInfo tableInfo : tableList) {
-            tableInfo.setEntityName(capitalFirst(processName(tableInfo.getName(), strategy)));
+            tableInfo.setEntityName(nameConverter.convert(tableInfo.getName()).getCapitalName());
             tableInfo.setMapperName(tableInfo.getEntityName() + ConstVal.MAPPER);
             tableInfo.setXmlName(tableInfo.getMapperName());
             tableInfo.setServiceName("I" + tableInfo.getEntityName() + ConstVal.SERIVCE);
@@ -209,251 +501,523 @@ public class ConfigBuilder {
     }
 
     /**
-     * 获取所有的数据库表信息
+     * 获取所有的数据库表信息，此时只读取表名与注释，字段信息按需加载
      *
      * @return 表信息
      */
-    private List<TableInfo> getTablesInfo(StrategyConfig config) {
+    private List<TableInfo> getTablesInfo(StrategyConfig config) throws SQLException {
         boolean isInclude = (null != config.getInclude() && config.getInclude().length > 0);
         boolean isExclude = (null != config.getExclude() && config.getExclude().length > 0);
         if (isInclude && isExclude) {
             throw new RuntimeException("<strategy> 标签中 <include> 与 <exclude> 只能配置一项！");
         }
+        // 配置的表名统一转大写，按忽略大小写的方式匹配
+        String[] configTables = isInclude ? config.getInclude() : isExclude ? config.getExclude() : new String[0];
+        Set<String> filterTables = new HashSet<String>();
+        for (String tab : configTables) {
+            filterTables.add(tab.toUpperCase());
+        }
         List<TableInfo> tableList = new ArrayList<TableInfo>();
-        Set<String> notExistTables = new HashSet<String>();
-        NamingStrategy strategy = config.getNaming();
         PreparedStatement pstate = null;
+        ResultSet results = null;
         try {
-            pstate = connection.prepareStatement(querySQL.getTableCommentsSql());
-            ResultSet results = pstate.executeQuery();
-            while (results.next()) {
-                String tableName = results.getString(querySQL.getTableName());
-                if (StringUtils.isNotBlank(tableName)) {
-                    String tableComment = results.getString(querySQL.getTableComment());
-                    TableInfo tableInfo = new TableInfo();
-                    if (isInclude) {
-                        for (String includeTab : config.getInclude()) {
-                            if (includeTab.equalsIgnoreCase(tableName)) {
-                                tableInfo.setName(tableName);
-                                tableInfo.setComment(tableComment);
-                            } else {
-                                notExistTables.add(includeTab);
-                            }
-                        }
-                    } else if (isExclude) {
-                        for (String excludeTab : config.getExclude()) {
-                            if (!excludeTab.equalsIgnoreCase(tableName)) {
-                                tableInfo.setName(tableName);
-                                tableInfo.setComment(tableComment);
-                            } else {
-                                notExistTables.add(excludeTab);
-                            }
+            long start = System.nanoTime();
+            if (null != snapshotTables) {
+                // 从快照读取所有表，在客户端过滤
+                for (SchemaSnapshot.Table table : snapshotTables.values()) {
+                    boolean matched = filterTables.contains(table.getName().toUpperCase());
+                    if ((isInclude && matched) || (!isInclude && !matched)) {
+                        TableInfo tableInfo = new TableInfo();
+                        tableInfo.setName(table.getName());
+                        tableInfo.setComment(table.getComment());
+                        tableList.add(tableInfo);
+                    }
+                }
+            } else if (config.isUseMetaData() || null == querySQL) {
+                // 其他数据库没有对应的查询语句，总是通过 DatabaseMetaData 读取
+                // 通过 DatabaseMetaData 读取所有表，在客户端过滤
+                introspector = new MetaDataIntrospector(connection, querySQL);
+                for (TableInfo tableInfo : introspector.getTables()) {
+                    boolean matched = filterTables.contains(tableInfo.getName().toUpperCase());
+                    if ((isInclude && matched) || (!isInclude && !matched)) {
+                        tableList.add(tableInfo);
+                    }
+                }
+            } else {
+                // 将include/exclude条件下推到SQL中，只读取需要的表
+                String tablesSql;
+                if (config.isShowTableStatus()) {
+                    tablesSql = String.format(querySQL.getTableCommentsSql(),
+                            tableFilter(querySQL.getTableName(), configTables, isExclude));
+                } else {
+                    tablesSql = String.format(querySQL.getTablesSql(),
+                            tableFilter(querySQL.getFieldTableName(), configTables, isExclude));
+                }
+                pstate = prepareStatement(connection, tablesSql);
+                results = pstate.executeQuery();
+                while (results.next()) {
+                    String tableName = results.getString(querySQL.getTableName());
+                    if (StringUtils.isNotBlank(tableName)) {
+                        // 客户端再按表名集合过滤一次，与快照及元数据方式的匹配规则保持一致
+                        boolean matched = filterTables.contains(tableName.toUpperCase());
+                        if ((isInclude && !matched) || (isExclude && matched)) {
+                            continue;
                         }
-                    } else {
+                        TableInfo tableInfo = new TableInfo();
                         tableInfo.setName(tableName);
-                        tableInfo.setComment(tableComment);
-                    }
-                    if (StringUtils.isNotBlank(tableInfo.getName())) {
-                        List<TableField> fieldList = getListFields(tableInfo.getName(), strategy);
-                        tableInfo.setFields(fieldList);
+                        tableInfo.setComment(results.getString(querySQL.getTableComment()));
                         tableList.add(tableInfo);
+                    } else {
+                        System.err.println("当前数据库为空！！！");
                     }
+                }
+            }
+            metrics.record(GenerateMetrics.CATALOG, start);
+            // 读取表结构缓存与指纹
+            if (null != metadataCacheFile && null == snapshotTables) {
+                if (null == querySQL) {
+                    System.err.println("数据库类型 " + dataSourceConfig.getDbType() + " 不支持查询表结构指纹，不使用表结构缓存！");
                 } else {
-                    System.err.println("当前数据库为空！！！");
+                    initMetadataCache(tableList, tableFilter(querySQL.getFieldTableName(), configTables, isExclude));
                 }
             }
             // 将已经存在的表移除
+            Set<String> notExistTables = new HashSet<String>(filterTables);
             for (TableInfo tabInfo : tableList) {
-                notExistTables.remove(tabInfo.getName());
+                notExistTables.remove(tabInfo.getName().toUpperCase());
             }
-            if (notExistTables.size() > 0) {
+            if (isInclude && notExistTables.size() > 0) {
                 System.err.println("表 " + notExistTables + " 在数据库中不存在！！！");
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         } finally {
             //释放资源
-            try {
-                if (pstate != null) {
-                    pstate.close();
+            close(results, pstate);
+        }
+        return processTable(tableList);
+    }
+
+    /**
+     * 加载一批表的字段信息，使用缓存时只重新读取指纹变化的表
+     *
+     * @param tableList 表信息
+     */
+    private void loadTableFields(List<TableInfo> tableList) throws SQLException {
+        if (null == metadataCache) {
+            loadFields(tableList);
+            return;
+        }
+        List<TableInfo> changedList = new ArrayList<TableInfo>();
+        for (TableInfo tableInfo : tableList) {
+            List<TableField> fieldList = metadataCache.getFields(tableInfo.getName(),
+                    fingerprints.get(tableInfo.getName()));
+            if (null == fieldList) {
+                changedList.add(tableInfo);
+            } else {
+                // 缓存中只有数据库原始信息可靠，属性名与类型按当前配置重新处理
+                for (TableField field : fieldList) {
+                    processFieldType(field);
+                }
+                tableInfo.setFields(fieldList);
+            }
+        }
+        if (!changedList.isEmpty()) {
+            loadFields(changedList);
+            reloadedTables += changedList.size();
+            for (TableInfo tableInfo : changedList) {
+                metadataCache.putFields(tableInfo.getName(), fingerprints.get(tableInfo.getName()),
+                        tableInfo.getFields());
+            }
+        }
+    }
+
+    /**
+     * 按配置的方式（批量、并发或逐表）加载字段信息
+     *
+     * @param tableList 表信息
+     */
+    private void loadFields(List<TableInfo> tableList) throws SQLException {
+        if (tableList.isEmpty()) {
+            // 没有表时过滤条件为空，批量查询会读取整个库的字段
+            return;
+        }
+        if (null != snapshotTables) {
+            for (TableInfo tableInfo : tableList) {
+                List<TableField> fieldList = snapshotTables.get(tableInfo.getName()).toFields();
+                for (TableField field : fieldList) {
+                    processFieldType(field);
                 }
-                if (connection != null) {
-                    connection.close();
+                tableInfo.setFields(fieldList);
+            }
+        } else if (null != introspector) {
+            long start = System.nanoTime();
+            Map<String, List<TableField>> fieldsMap = introspector.getFields(tableList);
+            for (TableInfo tableInfo : tableList) {
+                List<TableField> fieldList = fieldsMap.get(tableInfo.getName());
+                if (null == fieldList) {
+                    fieldList = new ArrayList<TableField>();
                 }
-            } catch (SQLException e) {
-                e.printStackTrace();
+                for (TableField field : fieldList) {
+                    processFieldType(field);
+                }
+                tableInfo.setFields(fieldList);
+            }
+            metrics.record(GenerateMetrics.COLUMNS_BULK, start);
+        } else if (strategyConfig.isBulkQuery()) {
+            String[] tableNames = new String[tableList.size()];
+            for (int i = 0; i < tableNames.length; i++) {
+                tableNames[i] = tableList.get(i).getName();
+            }
+            Map<String, List<TableField>> fieldsMap = getAllFields(
+                    tableFilter(querySQL.getFieldTableName(), tableNames, false));
+            for (TableInfo tableInfo : tableList) {
+                List<TableField> fieldList = fieldsMap.get(tableInfo.getName());
+                tableInfo.setFields(null == fieldList ? new ArrayList<TableField>() : fieldList);
+            }
+        } else if (strategyConfig.getParallelism() > 1 && tableList.size() > 1) {
+            // 并发数按全部表数量确定，各批共用同一个连接池
+            loadFieldsConcurrently(tableList, Math.min(strategyConfig.getParallelism(), tableInfoList.size()));
+        } else {
+            for (TableInfo tableInfo : tableList) {
+                tableInfo.setFields(getListFields(connection, tableInfo.getName()));
             }
         }
-        return processTable(tableList, strategy);
+    }
+
+    /**
+     * 读取表结构缓存与当前的表结构指纹
+     *
+     * @param tableList 表信息
+     * @param filter    表名过滤条件
+     */
+    private void initMetadataCache(List<TableInfo> tableList, String filter) throws SQLException {
+        String source = dataSourceConfig.getDbType() + "|" + dataSourceConfig.getUrl() + "|"
+                + dataSourceConfig.getUsername();
+        metadataCache = MetadataCache.load(metadataCacheFile, source);
+        if (StringUtils.isEmpty(filter)) {
+            // 读取了全部表时，丢弃已删除表的缓存
+            Set<String> tableNames = new HashSet<String>();
+            for (TableInfo tableInfo : tableList) {
+                tableNames.add(tableInfo.getName());
+            }
+            metadataCache.getTables().keySet().retainAll(tableNames);
+        }
+        fingerprints = getFingerprints(filter);
+    }
+
+    /**
+     * 查询表结构指纹
+     *
+     * @param filter 表名过滤条件
+     * @return 表名与指纹的映射
+     */
+    private Map<String, String> getFingerprints(String filter) throws SQLException {
+        Map<String, String> fingerprints = new HashMap<String, String>();
+        PreparedStatement pstate = null;
+        ResultSet results = null;
+        long start = System.nanoTime();
+        try {
+            pstate = prepareStatement(connection, String.format(querySQL.getTableFingerprintSql(), filter));
+            results = pstate.executeQuery();
+            while (results.next()) {
+                fingerprints.put(results.getString(querySQL.getFieldTableName()), results.getString("FINGERPRINT"));
+            }
+        } finally {
+            close(results, pstate);
+            metrics.record(GenerateMetrics.FINGERPRINT, start);
+        }
+        return fingerprints;
+    }
+
+    /**
+     * 使用连接池并发加载各表字段信息，结果按表的原始顺序设置
+     * 连接池与线程池在首次调用时创建，分批读取时各批共用
+     *
+     * @param tableList   表信息
+     * @param parallelism 并发数
+     */
+    private void loadFieldsConcurrently(List<TableInfo> tableList, int parallelism)
+            throws SQLException {
+        if (null == pool) {
+            long start = System.nanoTime();
+            pool = new ConnectionPool(dataSourceConfig, connection, parallelism);
+            metrics.record(GenerateMetrics.CONNECT, start);
+            executor = Executors.newFixedThreadPool(parallelism);
+        }
+        final ConnectionPool pool = this.pool;
+        try {
+            List<Future<List<TableField>>> futures = new ArrayList<Future<List<TableField>>>(tableList.size());
+            for (TableInfo tableInfo : tableList) {
+                final String tableName = tableInfo.getName();
+                futures.add(executor.submit(new Callable<List<TableField>>() {
+                    public List<TableField> call() throws Exception {
+                        Connection conn = pool.borrow();
+                        try {
+                            return getListFields(conn, tableName);
+                        } finally {
+                            pool.release(conn);
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < tableList.size(); i++) {
+                tableList.get(i).setFields(futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("加载表字段信息被中断！", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new RuntimeException("加载表字段信息失败！", e.getCause());
+        }
     }
 
     /**
      * 将字段信息与表信息关联
      *
+     * @param conn      数据库连接
      * @param tableName 表名称
-     * @param strategy  命名策略
      * @return 表信息
      */
-    private List<TableField> getListFields(String tableName, NamingStrategy strategy) throws SQLException {
-        boolean havedId = false;
-
-        // 此处为了兼容Oracle查询语句， 参数格式的时候放两个tableName
-        PreparedStatement pstate =
-                connection.prepareStatement(String.format(querySQL.getTableFieldsSql(), tableName, tableName));
-        ResultSet results = pstate.executeQuery();
+    private List<TableField> getListFields(Connection conn, String tableName)
+            throws SQLException {
+        int keyCount = 0;
+        long start = System.nanoTime();
 
         List<TableField> fieldList = new ArrayList<TableField>();
-        while (results.next()) {
-            TableField field = new TableField();
-            String key = results.getString(querySQL.getFieldKey());
-            // 避免多重主键设置，目前只取第一个找到ID，并放到list中的索引为0的位置
-            boolean isId = StringUtils.isNotBlank(key) && key.toUpperCase().equals("PRI");
-            //处理ID
-            if (isId && !havedId) {
-                field.setKeyFlag(true);
-                havedId = true;
-            } else {
-                field.setKeyFlag(false);
+        PreparedStatement pstate = null;
+        ResultSet results = null;
+        try {
+            // 此处为了兼容Oracle查询语句， 参数格式的时候放两个tableName
+            pstate = prepareStatement(conn, String.format(querySQL.getTableFieldsSql(), tableName, tableName));
+            results = pstate.executeQuery();
+            while (results.next()) {
+                TableField field = processField(results);
+                // 避免多重主键设置，目前只取第一个找到ID，联合主键的其他字段只记录主键中的序号
+                if (field.isKeyFlag()) {
+                    field.setKeySeq(++keyCount);
+                    field.setKeyFlag(keyCount == 1);
+                }
+                fieldList.add(field);
             }
-            //处理其它信息
-            field.setName(results.getString(querySQL.getFieldName()));
-            field.setType(results.getString(querySQL.getFieldType()));
-            field.setPropertyName(processName(field.getName(), strategy));
-            field.setPropertyType(processFiledType(field.getType()));
-            field.setComment(results.getString(querySQL.getFieldComment()));
-            fieldList.add(field);
+        } finally {
+            close(results, pstate);
+            metrics.record(GenerateMetrics.COLUMNS, start);
         }
         return fieldList;
     }
 
-
     /**
-     * 连接路径字符串
+     * 一次查询出所有表的字段信息，按表名分组
      *
-     * @param parentDir   路径常量字符串
-     * @param packageName 包名
-     * @return 连接后的路径
+     * @param filter   表名过滤条件
+     * @return 表名与字段信息的映射
      */
-    private String joinPath(String parentDir, String packageName) {
-        if (StringUtils.isEmpty(parentDir)) {
-            parentDir = System.getProperty(ConstVal.JAVA_TMPDIR);
-        }
-        if (!StringUtils.endsWith(parentDir, File.separator)) {
-            parentDir += File.separator;
+    private Map<String, List<TableField>> getAllFields(String filter) throws SQLException {
+        Map<String, List<TableField>> fieldsMap = new HashMap<String, List<TableField>>();
+        Map<String, Integer> keyCounts = new HashMap<String, Integer>();
+        PreparedStatement pstate = null;
+        ResultSet results = null;
+        long start = System.nanoTime();
+        try {
+            pstate = prepareStatement(connection, String.format(querySQL.getTableFieldsBulkSql(), filter));
+            results = pstate.executeQuery();
+            while (results.next()) {
+                String tableName = results.getString(querySQL.getFieldTableName());
+                List<TableField> fieldList = fieldsMap.get(tableName);
+                if (null == fieldList) {
+                    fieldList = new ArrayList<TableField>();
+                    fieldsMap.put(tableName, fieldList);
+                }
+                TableField field = processField(results);
+                // 与逐表查询一致，每张表只取第一个找到的ID
+                if (field.isKeyFlag()) {
+                    Integer keyCount = keyCounts.get(tableName);
+                    int keySeq = null == keyCount ? 1 : keyCount + 1;
+                    keyCounts.put(tableName, keySeq);
+                    field.setKeySeq(keySeq);
+                    field.setKeyFlag(keySeq == 1);
+                }
+                fieldList.add(field);
+            }
+        } finally {
+            close(results, pstate);
+            metrics.record(GenerateMetrics.COLUMNS_BULK, start);
         }
-        packageName = packageName.replaceAll("\\.", "\\" + File.separator);
-        return parentDir + packageName;
+        return fieldsMap;
     }
 
     /**
-     * 连接父子包名
+     * 创建查询语句并设置查询超时，避免数据库无响应时一直阻塞
      *
-     * @param parent     父包名
-     * @param subPackage 子包名
-     * @return 连接后的包名
+     * @param conn 数据库连接
+     * @param sql  查询语句
+     * @return 查询语句
      */
-    private String joinPackage(String parent, String subPackage) {
-        if (StringUtils.isBlank(parent)) {
-            return subPackage;
+    private PreparedStatement prepareStatement(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstate = conn.prepareStatement(sql);
+        if (dataSourceConfig.getQueryTimeout() > 0) {
+            pstate.setQueryTimeout(dataSourceConfig.getQueryTimeout());
         }
-        return parent + "." + subPackage;
+        return pstate;
     }
 
     /**
-     * 处理字段类型
+     * 关闭结果集与查询语句，关闭失败不影响后续处理
      *
-     * @return 转换成JAVA包装类型
+     * @param results 结果集，可为空
+     * @param pstate  查询语句，可为空
+     */
+    private static void close(ResultSet results, PreparedStatement pstate) {
+        try {
+            if (results != null) {
+                results.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        try {
+            if (pstate != null) {
+                pstate.close();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 释放数据库连接
      */
-    private String processFiledType(String type) {
-        if (QuerySQL.MYSQL == querySQL) {
-            return processMySqlType(type);
-        } else if (QuerySQL.ORACLE == querySQL) {
-            return processOracleType(type);
+    private void closeConnection() {
+        try {
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
-        return null;
     }
 
     /**
-     * 处理字段名称
+     * 将当前结果行转换为字段信息
      *
-     * @return 根据策略返回处理后的名称
+     * @param results 字段查询结果集
+     * @return 字段信息
      */
-    private String processName(String name, NamingStrategy strategy) {
-        String propertyName = "";
-        if (strategy == NamingStrategy.remove_prefix_and_camel) {
-            propertyName = NamingStrategy.removePrefixAndCamel(name);
-        } else if (strategy == NamingStrategy.underline_to_camel) {
-            propertyName = NamingStrategy.underlineToCamel(name);
-        } else if (strategy == NamingStrategy.remove_prefix) {
-            propertyName = NamingStrategy.removePrefix(name);
-        } else {
-            propertyName = name;
+    private TableField processField(ResultSet results) throws SQLException {
+        TableField field = new TableField();
+        String key = results.getString(querySQL.getFieldKey());
+        field.setKeyFlag(StringUtils.isNotBlank(key) && key.toUpperCase().equals("PRI"));
+        field.setName(results.getString(querySQL.getFieldName()));
+        field.setType(results.getString(querySQL.getFieldType()));
+        field.setComment(results.getString(querySQL.getFieldComment()));
+        return processFieldType(field);
+    }
+
+    /**
+     * 按当前配置处理字段的属性名与JAVA类型
+     *
+     * @param field 只含数据库原始信息的字段
+     * @return 字段信息
+     */
+    private TableField processFieldType(TableField field) {
+        NameConverter.Name name = nameConverter.intern(field.getName());
+        field.setPropertyName(name.getPropertyName(), name.getCapitalName());
+        field.setPropertyType(typeMappingRegistry.getJavaType(field.getType()));
+        return field;
+    }
+
+
+    /**
+     * 复制表的基本信息，不包含字段信息
+     *
+     * @param tableInfo 表信息
+     * @return 新的表信息
+     */
+    private TableInfo copyTable(TableInfo tableInfo) {
+        TableInfo copy = new TableInfo();
+        copy.setName(tableInfo.getName());
+        copy.setComment(tableInfo.getComment());
+        copy.setEntityName(tableInfo.getEntityName());
+        copy.setMapperName(tableInfo.getMapperName());
+        copy.setXmlName(tableInfo.getXmlName());
+        copy.setServiceName(tableInfo.getServiceName());
+        copy.setServiceImplName(tableInfo.getServiceImplName());
+        return copy;
+    }
+
+    /**
+     * 生成表名过滤条件
+     *
+     * @param column    表名所在列
+     * @param tables    过滤的表名
+     * @param isExclude 是否为排除
+     * @return 以 AND 开头的条件语句，无需过滤时返回空字符串
+     */
+    private String tableFilter(String column, String[] tables, boolean isExclude) {
+        if (tables.length == 0) {
+            return "";
+        }
+        // Oracle的IN列表最多1000项，超出时拆分为多个条件
+        StringBuilder filter = new StringBuilder(" AND (");
+        for (int i = 0; i < tables.length; i++) {
+            if (i % MAX_IN_SIZE == 0) {
+                if (i > 0) {
+                    filter.append(isExclude ? ") AND " : ") OR ");
+                }
+                filter.append("UPPER(").append(column).append(isExclude ? ") NOT IN (" : ") IN (");
+            } else {
+                filter.append(", ");
+            }
+            // 表名统一转大写比较，与配置的表名忽略大小写匹配（MySQL在Linux下表名默认区分大小写）
+            filter.append('\'').append(tables[i].toUpperCase().replace("'", "''")).append('\'');
         }
-        return propertyName;
+        return filter.append("))").toString();
     }
 
     /**
-     * MYSQL字段类型转换
+     * 连接路径字符串
      *
-     * @param type 字段类型
-     * @return JAVA类型
+     * @param parentDir   路径常量字符串
+     * @param packageName 包名
+     * @return 连接后的路径
      */
-    private String processMySqlType(String type) {
-        String t = type.toLowerCase();
-        if (t.contains("char")) {
-            return "String";
-        } else if (t.contains("bigint")) {
-            return "Long";
-        } else if (t.contains("int")) {
-            return "Integer";
-        } else if (t.contains("date") || t.contains("timestamp")) {
-            return "Date";
-        } else if (t.contains("text")) {
-            return "String";
-        } else if (t.contains("bit")) {
-            return "Boolean";
-        } else if (t.contains("decimal")) {
-            return "BigDecimal";
-        } else if (t.contains("blob")) {
-            return "byte[]";
-        } else if (t.contains("float")) {
-            return "Float";
-        } else if (t.contains("double")) {
-            return "Double";
+    private String joinPath(String parentDir, String packageName) {
+        if (StringUtils.isEmpty(parentDir)) {
+            parentDir = System.getProperty(ConstVal.JAVA_TMPDIR);
+        }
+        if (!StringUtils.endsWith(parentDir, File.separator)) {
+            parentDir += File.separator;
         }
-        return "String";
+        packageName = packageName.replaceAll("\\.", "\\" + File.separator);
+        return parentDir + packageName;
     }
 
     /**
-     * ORACLE字段类型转换
+     * 连接父子包名
      *
-     * @param type 字段类型
-     * @return JAVA类型
+     * @param parent     父包名
+     * @param subPackage 子包名
+     * @return 连接后的包名
      */
-    private String processOracleType(String type) {
-        String t = type.toUpperCase();
-        if (t.contains("CHAR")) {
-            return "String";
-        } else if (t.contains("DATE") || t.contains("TIMESTAMP")) {
-            return "Date";
-        } else if (t.contains("NUMBER")) {
-            return "Double";
-        } else if (t.contains("FLOAT")) {
-            return "Float";
-        } else if (t.contains("BLOB")) {
-            return "Object";
-        } else if (t.contains("RAW")) {
-            return "byte[]";
+    private String joinPackage(String parent, String subPackage) {
+        if (StringUtils.isBlank(parent)) {
+            return subPackage;
         }
-        return "String";
+        return parent + "." + subPackage;
     }
 
     /**
      * 获取当前的SQL类型
      *
-     * @return DB类型
+     * @return DB类型，其他数据库没有对应的查询语句，返回空
      */
     private QuerySQL getQuerySQL(DbType dbType) {
+        if (DbType.OTHER == dbType) {
+            return null;
+        }
         for (QuerySQL qs : QuerySQL.values()) {
             if (qs.getDbType().equals(dbType.getValue())) {
                 return qs;
@@ -461,18 +1025,4 @@ public class ConfigBuilder {
         }
         return QuerySQL.MYSQL;
     }
-
-
-    /**
-     * 实体首字母大写
-     *
-     * @param name 待转换的字符串
-     * @return 转换后的字符串
-     */
-    private String capitalFirst(String name) {
-        if (StringUtils.isNotBlank(name)) {
-            return name.substring(0, 1).toUpperCase() + name.substring(1);
-        }
-        return "";
-    }
 }
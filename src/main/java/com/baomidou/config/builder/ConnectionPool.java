@@ -0,0 +1,79 @@
+package com.baomidou.config.builder;
+
+import com.baomidou.config.DataSourceConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 固定大小的简易连接池，仅用于并发读取表结构
+ */
+class ConnectionPool {
+
+    /**
+     * 空闲连接
+     */
+    private final BlockingQueue<Connection> idle;
+    /**
+     * 由连接池创建的连接，关闭时只释放这部分
+     */
+    private final List<Connection> created = new ArrayList<Connection>();
+
+    /**
+     * 创建连接池
+     *
+     * @param config  数据源配置
+     * @param primary 已有连接，作为池中的第一个连接复用
+     * @param size    连接数
+     */
+    ConnectionPool(DataSourceConfig config, Connection primary, int size) throws SQLException {
+        idle = new ArrayBlockingQueue<Connection>(size);
+        idle.add(primary);
+        try {
+            for (int i = 1; i < size; i++) {
+                Connection conn = config.getConn();
+                created.add(conn);
+                idle.add(conn);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取一个空闲连接，没有空闲连接时等待
+     *
+     * @return 数据库连接
+     */
+    Connection borrow() throws InterruptedException {
+        return idle.take();
+    }
+
+    /**
+     * 归还连接
+     *
+     * @param conn 数据库连接
+     */
+    void release(Connection conn) {
+        idle.offer(conn);
+    }
+
+    /**
+     * 关闭连接池创建的连接
+     */
+    void close() {
+        for (Connection conn : created) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        created.clear();
+    }
+}
@@ -0,0 +1,976 @@
+package com.baomidou.config.builder;
+
+import com.baomidou.config.ConstVal;
+import com.baomidou.config.rules.DbType;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 解析DDL脚本（例如 Flyway 迁移脚本）得到表结构，不需要连接数据库
+ * 脚本按语句逐条读取并依次执行到内存中的表结构上，支持 MySQL 与 Oracle 的以下语句：
+ * CREATE TABLE（含 LIKE）、ALTER TABLE（ADD/DROP/MODIFY/CHANGE/RENAME 字段、主键与表注释）、
+ * DROP TABLE、RENAME TABLE、COMMENT ON TABLE/COLUMN；其他语句（索引、视图、存储过程、数据等）忽略。
+ * Oracle 中未加引号的名称按数据库的处理方式转为大写。
+ */
+public class DdlParser {
+
+    /**
+     * Flyway 版本脚本名称：V版本号__描述.sql，版本号各部分以 . 或 _ 分隔，例如 V1_1__add.sql
+     */
+    private static final Pattern VERSIONED = Pattern.compile("^[Vv](.+?)__.*");
+
+    /**
+     * Flyway 可重复执行的脚本名称：R__描述.sql
+     */
+    private static final Pattern REPEATABLE = Pattern.compile("^[Rr]__.*");
+
+    /**
+     * Oracle 的 PL/SQL 块，其中的分号不作为语句结束，只以单独一行的 / 结束
+     */
+    private static final Pattern PLSQL_BLOCK = Pattern.compile("^\\s*(DECLARE|BEGIN|CREATE\\s+(OR\\s+REPLACE\\s+)?"
+            + "(EDITIONABLE\\s+|NONEDITIONABLE\\s+)?(TRIGGER|PROCEDURE|FUNCTION|PACKAGE|TYPE))\\b.*",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    /**
+     * 字段定义中类型之后的约束与属性关键字，遇到时类型结束
+     */
+    private static final Set<String> COLUMN_OPTIONS = new HashSet<String>();
+
+    /**
+     * 表定义中非字段的定义（索引、外键、检查约束等）
+     */
+    private static final Set<String> NON_COLUMNS = new HashSet<String>();
+
+    static {
+        Collections.addAll(COLUMN_OPTIONS, "NOT", "NULL", "DEFAULT", "PRIMARY", "UNIQUE", "KEY", "COMMENT",
+                "AUTO_INCREMENT", "REFERENCES", "CHECK", "CONSTRAINT", "COLLATE", "CHARACTER", "CHARSET", "GENERATED",
+                "AS", "ON", "INVISIBLE", "VISIBLE", "STORAGE", "COLUMN_FORMAT", "SRID", "ENABLE", "DISABLE", "FIRST",
+                "AFTER", "IDENTITY", "ENCRYPT", "SORT");
+        Collections.addAll(NON_COLUMNS, "INDEX", "KEY", "UNIQUE", "FULLTEXT", "SPATIAL", "FOREIGN", "CHECK",
+                "PERIOD", "SUPPLEMENTAL");
+    }
+
+    private final boolean oracle;
+    private final DbType dbType;
+
+    /**
+     * 表名（大写）与表结构，按创建顺序
+     */
+    private final Map<String, SchemaSnapshot.Table> tables = new LinkedHashMap<String, SchemaSnapshot.Table>();
+
+    /**
+     * 已解析的语句数量
+     */
+    private int statements;
+
+    /**
+     * @param dbType 脚本的数据库类型，为空时按 MySQL 解析；OTHER 按 MySQL 的语法解析，字段类型使用通用映射
+     */
+    public DdlParser(DbType dbType) {
+        this.dbType = null == dbType ? DbType.MYSQL : dbType;
+        this.oracle = DbType.ORACLE == this.dbType;
+    }
+
+    /**
+     * 列出脚本文件：目录下的 .sql 文件（包括子目录）按 Flyway 的执行顺序排列，
+     * 即版本脚本按版本号排序，之后是可重复执行的脚本，其他文件按名称排序
+     *
+     * @param locations 脚本文件或目录
+     * @return 脚本文件
+     */
+    public static List<File> listScripts(File[] locations) throws IOException {
+        List<File> scripts = new ArrayList<File>();
+        for (File location : locations) {
+            if (location.isDirectory()) {
+                List<File> files = new ArrayList<File>();
+                collectScripts(location, files);
+                Collections.sort(files, new MigrationComparator());
+                scripts.addAll(files);
+            } else if (location.isFile()) {
+                scripts.add(location);
+            } else {
+                throw new IOException("DDL脚本不存在：" + location);
+            }
+        }
+        return scripts;
+    }
+
+    private static void collectScripts(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (null == children) {
+            return;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                collectScripts(child, files);
+            } else if (child.getName().toLowerCase(Locale.ENGLISH).endsWith(".sql")) {
+                files.add(child);
+            }
+        }
+    }
+
+    /**
+     * 读取脚本文件
+     *
+     * @param file 脚本文件，UTF-8编码
+     */
+    public void parse(File file) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), ConstVal.UTF8));
+        try {
+            parse(reader);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("DDL脚本解析失败：" + file + "，" + e.getMessage(), e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * 逐条读取并执行语句
+     *
+     * @param reader 脚本内容
+     */
+    public void parse(Reader reader) throws IOException {
+        StatementReader statementReader = new StatementReader(reader, oracle);
+        String sql;
+        while (null != (sql = statementReader.next())) {
+            statements++;
+            execute(new Tokens(tokenize(sql)));
+        }
+    }
+
+    /**
+     * 生成表结构快照
+     *
+     * @return 快照
+     */
+    public SchemaSnapshot toSnapshot() {
+        SchemaSnapshot snapshot = new SchemaSnapshot();
+        snapshot.setDbType(dbType);
+        snapshot.setSource("ddl");
+        snapshot.setTimestamp(System.currentTimeMillis());
+        snapshot.setTables(new ArrayList<SchemaSnapshot.Table>(tables.values()));
+        return snapshot;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    //****************************** 语句 **********************************
+
+    private void execute(Tokens t) {
+        if (t.accept("CREATE")) {
+            if (t.accept("OR")) {
+                t.expect("REPLACE");
+            }
+            t.accept("GLOBAL");
+            t.accept("TEMPORARY");
+            if (t.accept("TABLE")) {
+                createTable(t);
+            }
+        } else if (t.accept("ALTER")) {
+            if (t.accept("TABLE")) {
+                alterTable(t);
+            }
+        } else if (t.accept("DROP")) {
+            if (t.accept("TABLE")) {
+                ifExists(t);
+                do {
+                    tables.remove(key(name(t)));
+                } while (t.accept(","));
+            }
+        } else if (t.accept("RENAME")) {
+            if (t.accept("TABLE")) {
+                do {
+                    String from = name(t);
+                    t.expect("TO");
+                    renameTable(from, name(t));
+                } while (t.accept(","));
+            }
+        } else if (t.accept("COMMENT")) {
+            if (t.accept("ON")) {
+                commentOn(t);
+            }
+        }
+    }
+
+    private void createTable(Tokens t) {
+        if (t.accept("IF")) {
+            t.expect("NOT");
+            t.expect("EXISTS");
+            String name = name(t);
+            if (tables.containsKey(key(name))) {
+                return;
+            }
+            createTable(t, name);
+        } else {
+            createTable(t, name(t));
+        }
+    }
+
+    private void createTable(Tokens t, String name) {
+        SchemaSnapshot.Table table = new SchemaSnapshot.Table();
+        table.setName(name);
+        if (t.accept("LIKE")) {
+            SchemaSnapshot.Table source = tables.get(key(name(t)));
+            if (null != source) {
+                for (SchemaSnapshot.Column column : source.getColumns()) {
+                    table.getColumns().add(copy(column));
+                }
+            }
+        } else if (t.peekSymbol("(")) {
+            for (Tokens definition : t.group()) {
+                tableElement(table, definition);
+            }
+        } else {
+            // CREATE TABLE ... AS SELECT 无法确定字段
+            return;
+        }
+        // 表选项
+        while (t.hasNext()) {
+            if (t.accept("COMMENT")) {
+                t.accept("=");
+                table.setComment(t.string());
+            } else {
+                t.skip();
+            }
+        }
+        tables.put(key(name), table);
+    }
+
+    /**
+     * 表定义中的一项：字段或约束
+     */
+    private void tableElement(SchemaSnapshot.Table table, Tokens t) {
+        if (!t.hasNext()) {
+            return;
+        }
+        if (t.accept("CONSTRAINT")) {
+            if (!t.peekWord("PRIMARY")) {
+                name(t);
+            }
+        }
+        if (t.accept("PRIMARY")) {
+            t.expect("KEY");
+            primaryKey(table, columnNames(t));
+        } else if (!t.peekWordIn(NON_COLUMNS)) {
+            // 与关键字同名的字段需加引号，未加引号时按约束处理
+            addColumn(table, t);
+        }
+    }
+
+    private void alterTable(Tokens t) {
+        t.accept("ONLY");
+        ifExists(t);
+        SchemaSnapshot.Table table = tables.get(key(name(t)));
+        if (null == table) {
+            return;
+        }
+        for (Tokens clause : t.split()) {
+            alterClause(table, clause);
+        }
+    }
+
+    private void alterClause(SchemaSnapshot.Table table, Tokens t) {
+        if (t.accept("ADD")) {
+            t.accept("COLUMN");
+            if (t.peekSymbol("(")) {
+                for (Tokens definition : t.group()) {
+                    tableElement(table, definition);
+                }
+            } else {
+                tableElement(table, t);
+            }
+        } else if (t.accept("DROP")) {
+            if (t.accept("PRIMARY")) {
+                t.expect("KEY");
+                primaryKey(table, Collections.<String>emptyList());
+            } else if (t.accept("COLUMN") || !t.peekWordIn(NON_COLUMNS) && !t.peekWord("CONSTRAINT")
+                    && !t.peekWord("PARTITION")) {
+                List<String> names = t.peekSymbol("(") ? columnNames(t) : Collections.singletonList(name(t));
+                for (String name : names) {
+                    int index = indexOf(table, name);
+                    if (index >= 0) {
+                        table.getColumns().remove(index);
+                    }
+                }
+            }
+        } else if (t.accept("MODIFY")) {
+            t.accept("COLUMN");
+            if (t.peekSymbol("(")) {
+                for (Tokens definition : t.group()) {
+                    modifyColumn(table, definition, null);
+                }
+            } else {
+                modifyColumn(table, t, null);
+            }
+        } else if (t.accept("CHANGE")) {
+            t.accept("COLUMN");
+            modifyColumn(table, t, name(t));
+        } else if (t.accept("RENAME")) {
+            if (t.accept("COLUMN")) {
+                String from = name(t);
+                t.expect("TO");
+                int index = indexOf(table, from);
+                String to = name(t);
+                if (index >= 0) {
+                    table.getColumns().get(index).setName(to);
+                }
+            } else if (!t.peekWord("INDEX") && !t.peekWord("KEY") && !t.peekWord("CONSTRAINT")) {
+                if (!t.accept("TO")) {
+                    t.accept("AS");
+                }
+                renameTable(table.getName(), name(t));
+            }
+        } else if (t.accept("COMMENT")) {
+            t.accept("=");
+            table.setComment(t.string());
+        }
+    }
+
+    /**
+     * 修改字段定义
+     *
+     * @param oldName CHANGE 语句中的原字段名，MODIFY 时为空
+     */
+    private void modifyColumn(SchemaSnapshot.Table table, Tokens t, String oldName) {
+        SchemaSnapshot.Column column = new SchemaSnapshot.Column();
+        column.setName(name(t));
+        int index = indexOf(table, null == oldName ? column.getName() : oldName);
+        if (index < 0) {
+            return;
+        }
+        SchemaSnapshot.Column old = table.getColumns().get(index);
+        String type = columnType(t);
+        column.setType(type.isEmpty() ? old.getType() : type);
+        column.setKeySeq(old.getKeySeq());
+        // MySQL 的 MODIFY/CHANGE 重新定义整个字段，Oracle 只修改指定的属性
+        column.setComment(oracle ? old.getComment() : null);
+        boolean primary = columnOptions(t, column);
+        table.getColumns().remove(index);
+        table.getColumns().add(position(table, t, index), column);
+        if (primary) {
+            primaryKey(table, Collections.singletonList(column.getName()));
+        }
+    }
+
+    private void addColumn(SchemaSnapshot.Table table, Tokens t) {
+        SchemaSnapshot.Column column = new SchemaSnapshot.Column();
+        column.setName(name(t));
+        column.setType(columnType(t));
+        boolean primary = columnOptions(t, column);
+        int existing = indexOf(table, column.getName());
+        if (existing >= 0) {
+            table.getColumns().remove(existing);
+        }
+        table.getColumns().add(position(table, t, table.getColumns().size()), column);
+        if (primary) {
+            primaryKey(table, Collections.singletonList(column.getName()));
+        }
+    }
+
+    /**
+     * 字段类型：类型名称与括号中的长度、精度等，直到约束或属性关键字，例如 decimal(10,2) unsigned、VARCHAR2(64 CHAR)
+     */
+    private String columnType(Tokens t) {
+        StringBuilder type = new StringBuilder();
+        while (t.hasNext()) {
+            if (t.peekSymbol("(")) {
+                type.append('(').append(t.groupText()).append(')');
+            } else if (t.peekWordIn(COLUMN_OPTIONS) || !t.peekWord()) {
+                break;
+            } else {
+                if (type.length() > 0) {
+                    type.append(' ');
+                }
+                type.append(t.next().text);
+            }
+        }
+        return type.toString();
+    }
+
+    /**
+     * 读取字段的约束与属性，设置注释
+     *
+     * @return 是否为主键
+     */
+    private boolean columnOptions(Tokens t, SchemaSnapshot.Column column) {
+        boolean primary = false;
+        while (t.hasNext() && !t.peekWord("FIRST") && !t.peekWord("AFTER")) {
+            if (t.accept("PRIMARY")) {
+                t.expect("KEY");
+                primary = true;
+            } else if (t.accept("COMMENT")) {
+                column.setComment(t.string());
+            } else if (t.peekSymbol("(")) {
+                t.group();
+            } else {
+                t.skip();
+            }
+        }
+        return primary;
+    }
+
+    /**
+     * MySQL 的 FIRST、AFTER 字段位置
+     */
+    private int position(SchemaSnapshot.Table table, Tokens t, int defaultIndex) {
+        if (t.accept("FIRST")) {
+            return 0;
+        } else if (t.accept("AFTER")) {
+            int index = indexOf(table, name(t));
+            return index < 0 ? table.getColumns().size() : index + 1;
+        }
+        return Math.min(defaultIndex, table.getColumns().size());
+    }
+
+    private void commentOn(Tokens t) {
+        if (t.accept("TABLE")) {
+            SchemaSnapshot.Table table = tables.get(key(name(t)));
+            t.expect("IS");
+            String comment = t.string();
+            if (null != table) {
+                table.setComment(comment);
+            }
+        } else if (t.accept("COLUMN")) {
+            List<String> parts = qualifiedName(t);
+            t.expect("IS");
+            String comment = t.string();
+            if (parts.size() < 2) {
+                return;
+            }
+            SchemaSnapshot.Table table = tables.get(key(parts.get(parts.size() - 2)));
+            if (null != table) {
+                int index = indexOf(table, parts.get(parts.size() - 1));
+                if (index >= 0) {
+                    table.getColumns().get(index).setComment(comment);
+                }
+            }
+        }
+    }
+
+    private void renameTable(String from, String to) {
+        SchemaSnapshot.Table table = tables.remove(key(from));
+        if (null != table) {
+            table.setName(to);
+            tables.put(key(to), table);
+        }
+    }
+
+    private void ifExists(Tokens t) {
+        if (t.accept("IF")) {
+            t.expect("EXISTS");
+        }
+    }
+
+    /**
+     * 设置主键，按给定的顺序设置主键序号
+     */
+    private void primaryKey(SchemaSnapshot.Table table, List<String> names) {
+        for (SchemaSnapshot.Column column : table.getColumns()) {
+            column.setKeySeq(0);
+        }
+        for (int i = 0; i < names.size(); i++) {
+            int index = indexOf(table, names.get(i));
+            if (index >= 0) {
+                table.getColumns().get(index).setKeySeq(i + 1);
+            }
+        }
+    }
+
+    /**
+     * 括号中的字段名列表，忽略长度与排序，例如 (a(10) ASC, b)
+     */
+    private List<String> columnNames(Tokens t) {
+        List<String> names = new ArrayList<String>();
+        for (Tokens item : t.group()) {
+            if (item.hasNext()) {
+                names.add(name(item));
+            }
+        }
+        return names;
+    }
+
+    private static int indexOf(SchemaSnapshot.Table table, String name) {
+        List<SchemaSnapshot.Column> columns = table.getColumns();
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static SchemaSnapshot.Column copy(SchemaSnapshot.Column column) {
+        SchemaSnapshot.Column copy = new SchemaSnapshot.Column();
+        copy.setName(column.getName());
+        copy.setType(column.getType());
+        copy.setComment(column.getComment());
+        copy.setKeySeq(column.getKeySeq());
+        return copy;
+    }
+
+    /**
+     * 名称，带有 schema 前缀时只取最后一段
+     */
+    private String name(Tokens t) {
+        List<String> parts = qualifiedName(t);
+        return parts.get(parts.size() - 1);
+    }
+
+    private List<String> qualifiedName(Tokens t) {
+        List<String> parts = new ArrayList<String>();
+        do {
+            Token token = t.next();
+            if (token.type != Token.WORD && token.type != Token.QUOTED) {
+                throw new IllegalArgumentException("此处应为名称：" + token.text);
+            }
+            parts.add(token.type == Token.WORD && oracle ? token.text.toUpperCase(Locale.ENGLISH) : token.text);
+        } while (t.accept("."));
+        return parts;
+    }
+
+    private static String key(String name) {
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+
+    //****************************** 词法 **********************************
+
+    /**
+     * 将语句拆分为单词、带引号的名称、字符串与符号
+     */
+    private List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<Token>();
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (i < length) {
+                    char ch = sql.charAt(i);
+                    if (ch == '\\' && !oracle && i + 1 < length) {
+                        value.append(unescape(sql.charAt(i + 1)));
+                        i += 2;
+                    } else if (ch == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            value.append('\'');
+                            i += 2;
+                        } else {
+                            i++;
+                            break;
+                        }
+                    } else {
+                        value.append(ch);
+                        i++;
+                    }
+                }
+                tokens.add(new Token(Token.STRING, value.toString()));
+            } else if (c == '`' || c == '"') {
+                int end = sql.indexOf(c, i + 1);
+                if (end < 0) {
+                    end = length;
+                }
+                tokens.add(new Token(Token.QUOTED, sql.substring(i + 1, end)));
+                i = end + 1;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_'
+                        || sql.charAt(i) == '$' || sql.charAt(i) == '#')) {
+                    i++;
+                }
+                tokens.add(new Token(Token.WORD, sql.substring(start, i)));
+            } else {
+                tokens.add(new Token(Token.SYMBOL, String.valueOf(c)));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            case '0':
+                return '\0';
+            default:
+                return c;
+        }
+    }
+
+    private static class Token {
+
+        static final int WORD = 0;
+        static final int QUOTED = 1;
+        static final int STRING = 2;
+        static final int SYMBOL = 3;
+
+        final int type;
+        final String text;
+
+        Token(int type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        boolean isWord(String word) {
+            return type == WORD && text.equalsIgnoreCase(word);
+        }
+
+        boolean isSymbol(String symbol) {
+            return type == SYMBOL && text.equals(symbol);
+        }
+    }
+
+    /**
+     * 单条语句或其中一部分的单词序列
+     */
+    private static class Tokens {
+
+        private final List<Token> tokens;
+        private int index;
+
+        Tokens(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        boolean hasNext() {
+            return index < tokens.size();
+        }
+
+        Token next() {
+            if (!hasNext()) {
+                throw new IllegalArgumentException("语句不完整");
+            }
+            return tokens.get(index++);
+        }
+
+        void skip() {
+            index++;
+        }
+
+        boolean peekWord() {
+            return hasNext() && tokens.get(index).type == Token.WORD;
+        }
+
+        boolean peekWord(String word) {
+            return hasNext() && tokens.get(index).isWord(word);
+        }
+
+        boolean peekWordIn(Set<String> words) {
+            return peekWord() && words.contains(tokens.get(index).text.toUpperCase(Locale.ENGLISH));
+        }
+
+        boolean peekSymbol(String symbol) {
+            return hasNext() && tokens.get(index).isSymbol(symbol);
+        }
+
+        /**
+         * 下一个单词或符号与给定的相同时跳过
+         */
+        boolean accept(String text) {
+            if (hasNext() && (tokens.get(index).isWord(text) || tokens.get(index).isSymbol(text))) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String text) {
+            if (!accept(text)) {
+                throw new IllegalArgumentException("此处应为 " + text + "：" + (hasNext() ? next().text : "语句结束"));
+            }
+        }
+
+        String string() {
+            Token token = next();
+            if (token.type != Token.STRING) {
+                throw new IllegalArgumentException("此处应为字符串：" + token.text);
+            }
+            return token.text;
+        }
+
+        /**
+         * 读取括号中的内容，按顶层的逗号拆分
+         */
+        List<Tokens> group() {
+            int end = matching();
+            List<Tokens> items = new Tokens(tokens.subList(index + 1, end)).split();
+            index = end + 1;
+            return items;
+        }
+
+        /**
+         * 括号中内容的原文，字符串保留引号
+         */
+        String groupText() {
+            int end = matching();
+            StringBuilder text = new StringBuilder();
+            for (int i = index + 1; i < end; i++) {
+                Token token = tokens.get(i);
+                if (text.length() > 0 && token.type != Token.SYMBOL && !tokens.get(i - 1).isSymbol(",")
+                        && tokens.get(i - 1).type != Token.SYMBOL) {
+                    text.append(' ');
+                }
+                text.append(token.type == Token.STRING ? "'" + token.text.replace("'", "''") + "'" : token.text);
+            }
+            index = end + 1;
+            return text.toString();
+        }
+
+        /**
+         * 从当前位置起按顶层的逗号拆分
+         */
+        List<Tokens> split() {
+            List<Tokens> items = new ArrayList<Tokens>();
+            int depth = 0;
+            int start = index;
+            for (int i = index; i < tokens.size(); i++) {
+                Token token = tokens.get(i);
+                if (token.isSymbol("(")) {
+                    depth++;
+                } else if (token.isSymbol(")")) {
+                    depth--;
+                } else if (depth == 0 && token.isSymbol(",")) {
+                    items.add(new Tokens(tokens.subList(start, i)));
+                    start = i + 1;
+                }
+            }
+            items.add(new Tokens(tokens.subList(start, tokens.size())));
+            index = tokens.size();
+            return items;
+        }
+
+        /**
+         * 当前左括号对应的右括号位置
+         */
+        private int matching() {
+            if (!peekSymbol("(")) {
+                throw new IllegalArgumentException("此处应为 (");
+            }
+            int depth = 0;
+            for (int i = index; i < tokens.size(); i++) {
+                if (tokens.get(i).isSymbol("(")) {
+                    depth++;
+                } else if (tokens.get(i).isSymbol(")") && --depth == 0) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("括号不匹配");
+        }
+    }
+
+    /**
+     * 按分隔符逐条读取语句，跳过注释，字符串与带引号的名称中的分隔符不作为语句结束
+     * 支持 MySQL 的 DELIMITER 命令，以及 Oracle 中单独一行的 / 作为语句结束
+     */
+    private static class StatementReader {
+
+        private final Reader reader;
+        private final boolean oracle;
+        private String delimiter = ";";
+        private int pushback = -1;
+
+        StatementReader(Reader reader, boolean oracle) {
+            this.reader = reader;
+            this.oracle = oracle;
+        }
+
+        private int read() throws IOException {
+            if (pushback >= 0) {
+                int c = pushback;
+                pushback = -1;
+                return c;
+            }
+            return reader.read();
+        }
+
+        /**
+         * 读取下一条语句
+         *
+         * @return 语句，已无语句时返回null
+         */
+        String next() throws IOException {
+            StringBuilder sql = new StringBuilder();
+            int lineStart = 0;
+            int c;
+            while ((c = read()) != -1) {
+                if (c == '\'' || c == '"' || c == '`') {
+                    quoted(sql, (char) c);
+                } else if (c == '-' && peek('-')) {
+                    skipLine();
+                    c = '\n';
+                } else if (c == '#' && !oracle) {
+                    skipLine();
+                    c = '\n';
+                } else if (c == '/' && peek('*')) {
+                    skipBlockComment();
+                    sql.append(' ');
+                    continue;
+                } else {
+                    sql.append((char) c);
+                }
+                if (c == '\n') {
+                    String line = sql.substring(lineStart).trim();
+                    if (line.regionMatches(true, 0, "DELIMITER ", 0, 10) && sql.substring(0, lineStart).trim()
+                            .isEmpty()) {
+                        delimiter = line.substring(10).trim();
+                        sql.setLength(0);
+                        lineStart = 0;
+                        continue;
+                    }
+                    if (oracle && line.equals("/")) {
+                        sql.setLength(lineStart);
+                        String statement = sql.toString().trim();
+                        if (!statement.isEmpty()) {
+                            return statement;
+                        }
+                        sql.setLength(0);
+                    }
+                    lineStart = sql.length();
+                } else if (endsWithDelimiter(sql) && !(oracle && PLSQL_BLOCK.matcher(sql).matches())) {
+                    sql.setLength(sql.length() - delimiter.length());
+                    String statement = sql.toString().trim();
+                    if (!statement.isEmpty()) {
+                        return statement;
+                    }
+                    sql.setLength(0);
+                    lineStart = 0;
+                }
+            }
+            String statement = sql.toString().trim();
+            if (statement.regionMatches(true, 0, "DELIMITER ", 0, 10) || (oracle && statement.equals("/"))) {
+                return null;
+            }
+            return statement.isEmpty() ? null : statement;
+        }
+
+        private boolean endsWithDelimiter(StringBuilder sql) {
+            int length = delimiter.length();
+            return sql.length() >= length && sql.substring(sql.length() - length).equals(delimiter);
+        }
+
+        private boolean peek(char expected) throws IOException {
+            int c = read();
+            if (c == expected) {
+                return true;
+            }
+            pushback = c;
+            return false;
+        }
+
+        private void quoted(StringBuilder sql, char quote) throws IOException {
+            sql.append(quote);
+            int c;
+            while ((c = read()) != -1) {
+                sql.append((char) c);
+                if (c == '\\' && quote == '\'' && !oracle) {
+                    c = read();
+                    if (c == -1) {
+                        return;
+                    }
+                    sql.append((char) c);
+                } else if (c == quote) {
+                    return;
+                }
+            }
+        }
+
+        private void skipLine() throws IOException {
+            int c;
+            while ((c = read()) != -1 && c != '\n') {
+                // 跳过行注释
+            }
+        }
+
+        private void skipBlockComment() throws IOException {
+            int previous = 0;
+            int c;
+            while ((c = read()) != -1) {
+                if (previous == '*' && c == '/') {
+                    return;
+                }
+                previous = c;
+            }
+        }
+    }
+
+    /**
+     * Flyway 的执行顺序：版本脚本按版本号，之后是可重复执行的脚本
+     */
+    private static class MigrationComparator implements Comparator<File> {
+
+        public int compare(File a, File b) {
+            Matcher ma = VERSIONED.matcher(a.getName());
+            Matcher mb = VERSIONED.matcher(b.getName());
+            int ra = rank(ma, a.getName());
+            int rb = rank(mb, b.getName());
+            if (ra != rb) {
+                return ra - rb;
+            }
+            if (ra == 0) {
+                int result = compareVersion(ma.group(1), mb.group(1));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return a.getName().compareTo(b.getName());
+        }
+
+        /**
+         * 0 版本脚本，1 可重复执行的脚本，2 其他文件
+         */
+        private static int rank(Matcher versioned, String name) {
+            if (versioned.matches()) {
+                return 0;
+            }
+            return REPEATABLE.matcher(name).matches() ? 1 : 2;
+        }
+
+        private static int compareVersion(String a, String b) {
+            String[] pa = a.split("[._]");
+            String[] pb = b.split("[._]");
+            for (int i = 0; i < Math.max(pa.length, pb.length); i++) {
+                long va = i < pa.length ? parse(pa[i]) : 0;
+                long vb = i < pb.length ? parse(pb[i]) : 0;
+                if (va != vb) {
+                    return va < vb ? -1 : 1;
+                }
+            }
+            return 0;
+        }
+
+        private static long parse(String part) {
+            try {
+                return Long.parseLong(part);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.baomidou.config.builder;
+
+import com.baomidou.config.po.TableField;
+import com.baomidou.config.po.TableInfo;
+import com.baomidou.config.rules.QuerySQL;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 通过 JDBC DatabaseMetaData 读取表结构，不依赖各数据库的查询语句
+ * 表、字段与主键各使用表名模式 "%" 查询一次，再按表名分组，数据库交互次数与表的数量无关；
+ * 联合主键的所有字段都会被识别。
+ * 驱动不支持按模式查询主键时，改为逐表查询主键。
+ */
+class MetaDataIntrospector {
+
+    private static final String ALL = "%";
+    private static final String[] TABLE_TYPES = {"TABLE", "VIEW"};
+
+    private final DatabaseMetaData metaData;
+    private final String catalog;
+    private final String schema;
+
+    /**
+     * 表名与字段信息，首次读取字段时一次性查询，取出后即从中移除
+     */
+    private Map<String, List<TableField>> columns;
+    /**
+     * 表名与主键字段（按主键中的顺序），为空时逐表查询
+     */
+    private Map<String, List<String>> primaryKeys;
+
+    /**
+     * @param connection 数据库连接
+     * @param querySQL   数据库类型，用于确定 catalog 与 schema
+     */
+    MetaDataIntrospector(Connection connection, QuerySQL querySQL) throws SQLException {
+        this.metaData = connection.getMetaData();
+        if (QuerySQL.ORACLE == querySQL) {
+            // Oracle 按用户区分 schema，与 USER_TAB_COLUMNS 等视图的范围一致
+            this.catalog = null;
+            this.schema = metaData.getUserName().toUpperCase(Locale.ENGLISH);
+        } else {
+            this.catalog = connection.getCatalog();
+            this.schema = null;
+        }
+    }
+
+    /**
+     * 读取所有表的表名与注释
+     *
+     * @return 表信息
+     */
+    List<TableInfo> getTables() throws SQLException {
+        List<TableInfo> tableList = new ArrayList<TableInfo>();
+        ResultSet results = metaData.getTables(catalog, schema, ALL, TABLE_TYPES);
+        try {
+            while (results.next()) {
+                TableInfo tableInfo = new TableInfo();
+                tableInfo.setName(results.getString("TABLE_NAME"));
+                tableInfo.setComment(results.getString("REMARKS"));
+                tableList.add(tableInfo);
+            }
+        } finally {
+            results.close();
+        }
+        return tableList;
+    }
+
+    /**
+     * 获取一批表的字段信息，只设置数据库原始信息（名称、类型、注释与主键）
+     *
+     * @param tableList 表信息
+     * @return 表名与字段信息，没有字段的表不在其中
+     */
+    Map<String, List<TableField>> getFields(List<TableInfo> tableList) throws SQLException {
+        if (null == columns) {
+            columns = getAllColumns();
+            primaryKeys = getAllPrimaryKeys();
+        }
+        Map<String, List<TableField>> fieldsMap = new HashMap<String, List<TableField>>();
+        for (TableInfo tableInfo : tableList) {
+            List<TableField> fieldList = columns.remove(tableInfo.getName());
+            if (null == fieldList) {
+                continue;
+            }
+            List<String> keys = null == primaryKeys ? getPrimaryKeys(tableInfo.getName())
+                    : primaryKeys.remove(tableInfo.getName());
+            if (null != keys) {
+                for (TableField field : fieldList) {
+                    int index = keys.indexOf(field.getName());
+                    field.setKeySeq(index + 1);
+                    // 与按语句查询一致，只有主键中的第一个字段作为实体的ID
+                    field.setKeyFlag(index == 0);
+                }
+            }
+            fieldsMap.put(tableInfo.getName(), fieldList);
+        }
+        return fieldsMap;
+    }
+
+    /**
+     * 一次查询所有表的字段，按表名分组
+     */
+    private Map<String, List<TableField>> getAllColumns() throws SQLException {
+        Map<String, List<TableField>> columnsMap = new HashMap<String, List<TableField>>();
+        ResultSet results = metaData.getColumns(catalog, schema, ALL, ALL);
+        try {
+            while (results.next()) {
+                String tableName = results.getString("TABLE_NAME");
+                List<TableField> fieldList = columnsMap.get(tableName);
+                if (null == fieldList) {
+                    fieldList = new ArrayList<TableField>();
+                    columnsMap.put(tableName, fieldList);
+                }
+                TableField field = new TableField();
+                field.setName(results.getString("COLUMN_NAME"));
+                field.setType(columnType(results));
+                field.setComment(results.getString("REMARKS"));
+                fieldList.add(field);
+            }
+        } finally {
+            results.close();
+        }
+        return columnsMap;
+    }
+
+    /**
+     * 一次查询所有表的主键，驱动不支持按模式查询时返回空
+     */
+    private Map<String, List<String>> getAllPrimaryKeys() {
+        Map<String, Map<Short, String>> keysMap = new HashMap<String, Map<Short, String>>();
+        try {
+            ResultSet results = metaData.getPrimaryKeys(catalog, schema, ALL);
+            try {
+                while (results.next()) {
+                    String tableName = results.getString("TABLE_NAME");
+                    Map<Short, String> keys = keysMap.get(tableName);
+                    if (null == keys) {
+                        keys = new TreeMap<Short, String>();
+                        keysMap.put(tableName, keys);
+                    }
+                    keys.put(results.getShort("KEY_SEQ"), results.getString("COLUMN_NAME"));
+                }
+            } finally {
+                results.close();
+            }
+        } catch (SQLException e) {
+            // 多数驱动要求主键查询指定确切的表名
+            return null;
+        }
+        if (keysMap.isEmpty()) {
+            return null;
+        }
+        Map<String, List<String>> primaryKeys = new HashMap<String, List<String>>();
+        for (Map.Entry<String, Map<Short, String>> entry : keysMap.entrySet()) {
+            primaryKeys.put(entry.getKey(), new ArrayList<String>(entry.getValue().values()));
+        }
+        return primaryKeys;
+    }
+
+    /**
+     * 查询单张表的主键
+     */
+    private List<String> getPrimaryKeys(String tableName) throws SQLException {
+        Map<Short, String> keys = new TreeMap<Short, String>();
+        ResultSet results = metaData.getPrimaryKeys(catalog, schema, tableName);
+        try {
+            while (results.next()) {
+                keys.put(results.getShort("KEY_SEQ"), results.getString("COLUMN_NAME"));
+            }
+        } finally {
+            results.close();
+        }
+        return new ArrayList<String>(keys.values());
+    }
+
+    /**
+     * 由类型名称、长度与小数位组成字段类型，例如 NUMBER(19,0)，与按语句查询得到的类型格式一致
+     */
+    private static String columnType(ResultSet results) throws SQLException {
+        String typeName = results.getString("TYPE_NAME");
+        int size = results.getInt("COLUMN_SIZE");
+        if (results.wasNull() || size <= 0) {
+            return typeName;
+        }
+        int digits = results.getInt("DECIMAL_DIGITS");
+        if (results.wasNull()) {
+            return typeName + "(" + size + ")";
+        } else if (digits < 0) {
+            // 例如未指定精度的 Oracle NUMBER
+            return typeName;
+        }
+        return typeName + "(" + size + "," + digits + ")";
+    }
+}
@@ -0,0 +1,154 @@
+package com.baomidou.config.builder;
+
+import com.alibaba.fastjson.JSON;
+import com.baomidou.config.ConstVal;
+import com.baomidou.config.po.TableField;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表结构元数据的磁盘缓存
+ * 以表的指纹（字段数量、字段定义校验和或DDL时间）判断表结构是否变化，未变化的表直接使用缓存的字段信息
+ */
+public class MetadataCache {
+
+    /**
+     * 缓存格式版本，格式或字段类型的读取方式不兼容时递增
+     */
+    private static final int VERSION = 2;
+
+    private int version = VERSION;
+    /**
+     * 数据源标识，数据源变化时缓存失效
+     */
+    private String source;
+    /**
+     * 表名与缓存的表结构
+     */
+    private Map<String, Entry> tables = new HashMap<String, Entry>();
+
+    /**
+     * 读取缓存文件，文件不存在、格式不兼容或数据源不一致时返回空缓存
+     *
+     * @param file   缓存文件
+     * @param source 数据源标识
+     * @return 缓存
+     */
+    public static MetadataCache load(File file, String source) {
+        MetadataCache cache = null;
+        if (file.isFile()) {
+            try {
+                cache = JSON.parseObject(FileUtils.fileRead(file, ConstVal.UTF8), MetadataCache.class);
+            } catch (Exception e) {
+                System.err.println("表结构缓存文件 " + file + " 读取失败，将重新读取表结构！");
+            }
+        }
+        if (null == cache || cache.getVersion() != VERSION || !source.equals(cache.getSource())
+                || null == cache.getTables()) {
+            cache = new MetadataCache();
+            cache.setSource(source);
+        }
+        return cache;
+    }
+
+    /**
+     * 写入缓存文件
+     *
+     * @param file 缓存文件
+     */
+    public void save(File file) {
+        try {
+            File dir = file.getParentFile();
+            if (null != dir && !dir.exists()) {
+                dir.mkdirs();
+            }
+            FileUtils.fileWrite(file, ConstVal.UTF8, JSON.toJSONString(this));
+        } catch (IOException e) {
+            System.err.println("表结构缓存文件 " + file + " 写入失败！");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 获取指纹一致的缓存字段
+     *
+     * @param tableName   表名
+     * @param fingerprint 当前表指纹
+     * @return 字段信息，未命中时返回null
+     */
+    public List<TableField> getFields(String tableName, String fingerprint) {
+        Entry entry = tables.get(tableName);
+        if (null != entry && null != fingerprint && fingerprint.equals(entry.getFingerprint())) {
+            return entry.getFields();
+        }
+        return null;
+    }
+
+    /**
+     * 更新表的缓存
+     *
+     * @param tableName   表名
+     * @param fingerprint 表指纹
+     * @param fields      字段信息
+     */
+    public void putFields(String tableName, String fingerprint, List<TableField> fields) {
+        Entry entry = new Entry();
+        entry.setFingerprint(fingerprint);
+        entry.setFields(fields);
+        tables.put(tableName, entry);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public Map<String, Entry> getTables() {
+        return tables;
+    }
+
+    public void setTables(Map<String, Entry> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * 单张表的缓存
+     */
+    public static class Entry {
+
+        private String fingerprint;
+        private List<TableField> fields;
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public List<TableField> getFields() {
+            return fields;
+        }
+
+        public void setFields(List<TableField> fields) {
+            this.fields = fields;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.baomidou.config.builder;
+
+import com.alibaba.fastjson.JSON;
+import com.baomidou.config.ConstVal;
+import com.baomidou.config.po.TableField;
+import com.baomidou.config.po.TableInfo;
+import com.baomidou.config.rules.DbType;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 数据库表结构快照，由 snapshot 目标生成，generate 目标配置 snapshotFile 后从快照读取表结构，不再连接数据库
+ * 只保存数据库中的原始信息（表名、注释、字段名、类型、主键序号），属性名与JAVA类型在生成时按当前配置处理；
+ * 文件为紧凑的JSON，文件名以 .gz 结尾时使用gzip压缩。
+ */
+public class SchemaSnapshot {
+
+    /**
+     * 快照格式版本，格式不兼容时递增
+     */
+    public static final int VERSION = 1;
+
+    private int version = VERSION;
+    /**
+     * 数据库类型
+     */
+    private DbType dbType;
+    /**
+     * 数据源标识，仅用于提示快照的来源
+     */
+    private String source;
+    /**
+     * 生成时间
+     */
+    private long timestamp;
+    /**
+     * 表结构
+     */
+    private List<Table> tables = new ArrayList<Table>();
+
+    /**
+     * 读取快照文件
+     *
+     * @param file 快照文件
+     * @return 快照
+     * @throws IOException 文件不存在、格式错误或版本不兼容
+     */
+    public static SchemaSnapshot load(File file) throws IOException {
+        if (!file.isFile()) {
+            throw new IOException("表结构快照文件不存在：" + file);
+        }
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        SchemaSnapshot snapshot;
+        try {
+            if (isGzip(file)) {
+                in = new GZIPInputStream(in);
+            }
+            snapshot = JSON.parseObject(IOUtil.toString(in, ConstVal.UTF8), SchemaSnapshot.class);
+        } catch (RuntimeException e) {
+            throw new IOException("表结构快照文件格式错误：" + file, e);
+        } finally {
+            in.close();
+        }
+        if (null == snapshot || snapshot.getVersion() != VERSION) {
+            throw new IOException("表结构快照文件版本不兼容：" + file + "，请重新执行 snapshot 目标");
+        }
+        if (null == snapshot.getDbType() || null == snapshot.getTables()) {
+            throw new IOException("表结构快照文件内容不完整：" + file);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 写入快照文件
+     *
+     * @param file 快照文件
+     */
+    public void save(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (null != dir && !dir.exists()) {
+            dir.mkdirs();
+        }
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            if (isGzip(file)) {
+                out = new GZIPOutputStream(out);
+            }
+            out.write(JSON.toJSONString(this).getBytes(ConstVal.UTF8));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static boolean isGzip(File file) {
+        return file.getName().endsWith(".gz");
+    }
+
+    /**
+     * 添加一批表的结构
+     *
+     * @param tableList 已加载字段信息的表
+     */
+    public void addTables(List<TableInfo> tableList) {
+        for (TableInfo tableInfo : tableList) {
+            Table table = new Table();
+            table.setName(tableInfo.getName());
+            table.setComment(tableInfo.getComment());
+            for (TableField field : tableInfo.getFields()) {
+                Column column = new Column();
+                column.setName(field.getName());
+                column.setType(field.getType());
+                column.setComment(field.getComment());
+                column.setKeySeq(field.getKeySeq());
+                table.getColumns().add(column);
+            }
+            tables.add(table);
+        }
+    }
+
+    /**
+     * 与之前的快照比较，找出新增或结构变化的表
+     *
+     * @param previous 之前的快照，为空时返回所有表
+     * @return 表名
+     */
+    public Set<String> changedTables(SchemaSnapshot previous) {
+        Map<String, String> previousTables = new HashMap<String, String>();
+        if (null != previous) {
+            for (Table table : previous.getTables()) {
+                previousTables.put(table.getName(), JSON.toJSONString(table));
+            }
+        }
+        Set<String> changed = new LinkedHashSet<String>();
+        for (Table table : tables) {
+            if (!JSON.toJSONString(table).equals(previousTables.get(table.getName()))) {
+                changed.add(table.getName());
+            }
+        }
+        return changed;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public DbType getDbType() {
+        return dbType;
+    }
+
+    public void setDbType(DbType dbType) {
+        this.dbType = dbType;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<Table> tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * 单张表的结构
+     */
+    public static class Table {
+
+        private String name;
+        private String comment;
+        private List<Column> columns = new ArrayList<Column>();
+
+        /**
+         * 转换为只含数据库原始信息的字段，每次调用返回新的对象
+         *
+         * @return 字段信息
+         */
+        List<TableField> toFields() {
+            List<TableField> fieldList = new ArrayList<TableField>(columns.size());
+            for (Column column : columns) {
+                TableField field = new TableField();
+                field.setName(column.getName());
+                field.setType(column.getType());
+                field.setComment(column.getComment());
+                field.setKeySeq(column.getKeySeq());
+                field.setKeyFlag(column.getKeySeq() == 1);
+                fieldList.add(field);
+            }
+            return fieldList;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public void setComment(String comment) {
+            this.comment = comment;
+        }
+
+        public List<Column> getColumns() {
+            return columns;
+        }
+
+        public void setColumns(List<Column> columns) {
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * 字段结构
+     */
+    public static class Column {
+
+        private String name;
+        private String type;
+        private String comment;
+        /**
+         * 在主键中的序号，非主键为0
+         */
+        private int keySeq;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getComment() {
+            return comment;
+        }
+
+        public void setComment(String comment) {
+            this.comment = comment;
+        }
+
+        public int getKeySeq() {
+            return keySeq;
+        }
+
+        public void setKeySeq(int keySeq) {
+            this.keySeq = keySeq;
+        }
+    }
+}
@@ -8,6 +8,10 @@ package com.baomidou.config.po;
 public class TableField {
 
     private boolean keyFlag;
+    /**
+     * 字段在主键中的序号，从1开始，非主键字段为0；联合主键时只有第一个字段的 keyFlag 为 true
+     */
+    private int keySeq;
     private String name;
     private String type;
     private String propertyName;
@@ -24,6 +28,14 @@ public class TableField {
         this.keyFlag = keyFlag;
     }
 
+    public int getKeySeq() {
+        return keySeq;
+    }
+
+    public void setKeySeq(int keySeq) {
+        this.keySeq = keySeq;
+    }
+
     public String getName() {
         return name;
     }
@@ -46,6 +58,18 @@ public class TableField {
 
     public void setPropertyName(String propertyName) {
         this.propertyName = propertyName;
+        this.capitalName = null;
+    }
+
+    /**
+     * 同时设置属性名与首字母大写的名称
+     *
+     * @param propertyName 属性名
+     * @param capitalName  首字母大写的名称
+     */
+    public void setPropertyName(String propertyName, String capitalName) {
+        this.propertyName = propertyName;
+        this.capitalName = capitalName;
     }
 
     public String getPropertyType() {
@@ -65,10 +89,21 @@ public class TableField {
     }
 
     public boolean isConvert() {
-        return !name.equals(propertyName);
+        return convert;
     }
 
     public String getCapitalName() {
-        return propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
+        return capitalName;
+    }
+
+    /**
+     * 计算模板中使用的派生数据，由 {@link TableInfo#setFields(java.util.List)} 在表信息完成时调用
+     */
+    void complete() {
+        convert = !name.equals(propertyName);
+        if (null == capitalName) {
+            capitalName = propertyName.isEmpty() ? propertyName
+                    : propertyName.substring(0, 1).toUpperCase() + propertyName.substring(1);
+        }
     }
 }
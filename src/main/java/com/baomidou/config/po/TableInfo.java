@@ -3,7 +3,12 @@ package com.baomidou.config.po;
 
 import org.apache.commons.lang.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * 表信息，关联到当前字段信息
@@ -13,6 +18,9 @@ import java.util.List;
  */
 public class TableInfo {
 
+    private static final String DATE_PACKAGE = "java.util.Date";
+    private static final String BIG_DECIMAL_PACKAGE = "java.math.BigDecimal";
+
     private String name;
     private String comment;
 
@@ -23,8 +31,16 @@ public class TableInfo {
     private String serviceImplName;
 
     private List<TableField> fields;
+
+    /**
+     * 以下为由字段信息计算得到的数据，设置字段信息时计算一次，之后只读
+     */
     private String fieldNames;
     private boolean hasDate;
+    private boolean hasBigDecimal;
+    private Set<String> importPackages = Collections.emptySet();
+    private TableField keyField;
+    private List<TableField> keyFields = Collections.emptyList();
 
     public String getName() {
         return name;
@@ -86,8 +102,51 @@ public class TableInfo {
         return fields;
     }
 
+    /**
+     * 设置字段信息并计算模板中使用的派生数据，字段信息应已处理完属性名与类型
+     * 设置后字段列表不可修改，表信息可以在生成文件的多个线程间共享
+     *
+     * @param fields 字段信息
+     */
     public void setFields(List<TableField> fields) {
-        this.fields = fields;
+        StringBuilder names = new StringBuilder();
+        Set<String> packages = new TreeSet<String>();
+        List<TableField> keys = new ArrayList<TableField>();
+        boolean date = false;
+        boolean bigDecimal = false;
+        TableField key = null;
+        for (TableField field : fields) {
+            field.complete();
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(cov2col(field));
+            if ("Date".equals(field.getPropertyType())) {
+                date = true;
+                packages.add(DATE_PACKAGE);
+            } else if ("BigDecimal".equals(field.getPropertyType())) {
+                bigDecimal = true;
+                packages.add(BIG_DECIMAL_PACKAGE);
+            }
+            if (field.isKeyFlag() && null == key) {
+                key = field;
+            }
+            if (field.getKeySeq() > 0) {
+                keys.add(field);
+            }
+        }
+        Collections.sort(keys, new Comparator<TableField>() {
+            public int compare(TableField o1, TableField o2) {
+                return o1.getKeySeq() - o2.getKeySeq();
+            }
+        });
+        this.fields = Collections.unmodifiableList(new ArrayList<TableField>(fields));
+        this.fieldNames = names.toString();
+        this.hasDate = date;
+        this.hasBigDecimal = bigDecimal;
+        this.importPackages = Collections.unmodifiableSet(packages);
+        this.keyField = key;
+        this.keyFields = Collections.unmodifiableList(keys);
     }
 
     /**
@@ -96,18 +155,6 @@ public class TableInfo {
      * @return
      */
     public String getFieldNames() {
-        if (StringUtils.isBlank(fieldNames)) {
-            StringBuilder names = new StringBuilder();
-            for (int i = 0; i < fields.size(); i++) {
-                TableField fd = fields.get(i);
-                if (i == fields.size() - 1) {
-                    names.append(cov2col(fd));
-                } else {
-                    names.append(cov2col(fd)).append(", ");
-                }
-            }
-            fieldNames = names.toString();
-        }
         return fieldNames;
     }
 
@@ -117,15 +164,45 @@ public class TableInfo {
      * @return 是否
      */
     public boolean isHasDate() {
-        for (TableField fieldInfo : fields) {
-            if (fieldInfo.getPropertyType().equals("Date")) {
-                hasDate = true;
-                break;
-            }
-        }
         return hasDate;
     }
 
+    /**
+     * 判断字段中是否包含 BigDecimal 类型
+     *
+     * @return 是否
+     */
+    public boolean isHasBigDecimal() {
+        return hasBigDecimal;
+    }
+
+    /**
+     * 实体需要导入的JAVA类型，按包名排序
+     *
+     * @return 类型全称
+     */
+    public Set<String> getImportPackages() {
+        return importPackages;
+    }
+
+    /**
+     * 实体的ID字段，即主键中的第一个字段
+     *
+     * @return ID字段，没有主键时为空
+     */
+    public TableField getKeyField() {
+        return keyField;
+    }
+
+    /**
+     * 主键的所有字段，按主键中的顺序排列
+     *
+     * @return 主键字段
+     */
+    public List<TableField> getKeyFields() {
+        return keyFields;
+    }
+
     /**
      * mapper xml中的字字段添加as
      *
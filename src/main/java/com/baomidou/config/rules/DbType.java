@@ -2,13 +2,14 @@ package com.baomidou.config.rules;
 
 /**
  * 数据库类型定义
+ * OTHER 为其他 JDBC 数据库，没有对应的查询语句，通过 DatabaseMetaData 读取表结构
  *
  * @author YangHu
  * @since 2016/8/30
  */
 public enum DbType {
 
-    MYSQL("myslq"), ORACLE("oracle");
+    MYSQL("myslq"), ORACLE("oracle"), OTHER("other");
 
     private String value;
 
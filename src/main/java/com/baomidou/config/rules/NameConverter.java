@@ -0,0 +1,116 @@
+package com.baomidou.config.rules;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按命名策略转换名称，一次遍历同时得到属性名与首字母大写的名称
+ * 字段名在各表之间大量重复（id、create_time 等），转换结果按原始名称缓存，所有表共用同一份结果
+ */
+public class NameConverter {
+
+    /**
+     * 缓存的名称数量上限，超出后不再缓存，避免表数量极多时缓存无限增长
+     */
+    private static final int MAX_CACHE_SIZE = 1 << 16;
+
+    private final NamingStrategy strategy;
+
+    private final ConcurrentMap<String, Name> names = new ConcurrentHashMap<String, Name>();
+
+    public NameConverter(NamingStrategy strategy) {
+        this.strategy = null == strategy ? NamingStrategy.nochange : strategy;
+    }
+
+    /**
+     * 转换字段名称，相同的名称只转换一次
+     *
+     * @param name 字段名称
+     * @return 转换后的名称
+     */
+    public Name intern(String name) {
+        Name result = names.get(name);
+        if (null == result) {
+            result = convert(name);
+            if (names.size() < MAX_CACHE_SIZE) {
+                Name exists = names.putIfAbsent(name, result);
+                if (null != exists) {
+                    result = exists;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 转换名称，不使用缓存，适用于表名等不会重复的名称
+     *
+     * @param name 原始名称
+     * @return 转换后的名称
+     */
+    public Name convert(String name) {
+        if (StringUtils.isBlank(name)) {
+            return new Name("", "");
+        }
+        int from;
+        if (strategy == NamingStrategy.remove_prefix_and_camel) {
+            from = NamingStrategy.prefixEnd(name);
+        } else if (strategy == NamingStrategy.underline_to_camel) {
+            from = 0;
+        } else if (strategy == NamingStrategy.remove_prefix) {
+            return capital(NamingStrategy.removePrefix(name));
+        } else {
+            return capital(name);
+        }
+        char[] chars = new char[name.length() - from];
+        int length = NamingStrategy.underlineToCamel(name, from, chars);
+        if (length == 0) {
+            return new Name("", "");
+        }
+        String propertyName = new String(chars, 0, length);
+        chars[0] = Character.toUpperCase(chars[0]);
+        return new Name(propertyName, new String(chars, 0, length));
+    }
+
+    /**
+     * 未做驼峰转换的名称，仅生成首字母大写的名称
+     */
+    private static Name capital(String propertyName) {
+        if (propertyName.isEmpty() || Character.isUpperCase(propertyName.charAt(0))) {
+            return new Name(propertyName, propertyName);
+        }
+        char[] chars = propertyName.toCharArray();
+        chars[0] = Character.toUpperCase(chars[0]);
+        return new Name(propertyName, new String(chars));
+    }
+
+    /**
+     * 转换后的名称
+     */
+    public static class Name {
+
+        /**
+         * 属性名
+         */
+        private final String propertyName;
+        /**
+         * 首字母大写的名称，用于类名与getter/setter
+         */
+        private final String capitalName;
+
+        Name(String propertyName, String capitalName) {
+            this.propertyName = propertyName;
+            this.capitalName = capitalName;
+        }
+
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        public String getCapitalName() {
+            return capitalName;
+        }
+    }
+}
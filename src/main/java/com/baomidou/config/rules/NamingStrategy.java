@@ -27,34 +27,59 @@ public enum NamingStrategy {
      */
     remove_prefix_and_camel;
 
+    private static final char UNDERLINE = ConstVal.UNDERLINE.charAt(0);
+
+    /**
+     * 下划线转驼峰，第一个片段全部小写，其他片段首字母大写；不含下划线时仅将首字母小写
+     *
+     * @param name 原始名称
+     * @return 转换后的名称
+     */
     public static String underlineToCamel(String name) {
-        // 快速检查
         if (StringUtils.isBlank(name)) {
-            // 没必要转换
             return "";
-        } else if (!name.contains(ConstVal.UNDERLINE)) {
-            // 不含下划线，仅将首字母小写
-            return name.substring(0, 1).toLowerCase() + name.substring(1);
         }
-        StringBuilder result = new StringBuilder();
-        // 用下划线将原始字符串分割
-        String camels[] = name.split(ConstVal.UNDERLINE);
-        for (String camel : camels) {
-            // 跳过原始字符串中开头、结尾的下换线或双重下划线
-            if (StringUtils.isBlank(camel)) {
-                continue;
+        char[] chars = new char[name.length()];
+        int length = underlineToCamel(name, 0, chars);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * 单次遍历完成下划线转驼峰，结果写入字符数组，不产生中间字符串
+     * 跳过原始字符串中开头、结尾的下划线或双重下划线
+     *
+     * @param name  原始名称
+     * @param from  开始转换的位置
+     * @param chars 结果数组，长度不小于 name.length() - from
+     * @return 结果长度
+     */
+    static int underlineToCamel(String name, int from, char[] chars) {
+        int length = 0;
+        if (name.indexOf(UNDERLINE, from) == -1) {
+            // 不含下划线，仅将首字母小写
+            for (int i = from; i < name.length(); i++) {
+                chars[length++] = name.charAt(i);
             }
-            // 处理真正的驼峰片段
-            if (result.length() == 0) {
-                // 第一个驼峰片段，全部字母都小写
-                result.append(camel.toLowerCase());
-            } else {
+            if (length > 0) {
+                chars[0] = Character.toLowerCase(chars[0]);
+            }
+            return length;
+        }
+        boolean segmentStart = true;
+        for (int i = from; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == UNDERLINE) {
+                segmentStart = true;
+            } else if (segmentStart && length > 0) {
                 // 其他的驼峰片段，首字母大写
-                result.append(camel.substring(0, 1).toUpperCase());
-                result.append(camel.substring(1).toLowerCase());
+                chars[length++] = Character.toUpperCase(c);
+                segmentStart = false;
+            } else {
+                chars[length++] = Character.toLowerCase(c);
+                segmentStart = false;
             }
         }
-        return result.toString();
+        return length;
     }
 
     /**
@@ -67,11 +92,8 @@ public enum NamingStrategy {
         if (StringUtils.isBlank(name)) {
             return "";
         }
-        int idx = name.indexOf(ConstVal.UNDERLINE);
-        if (idx == -1) {
-            return name;
-        }
-        return name.substring(idx + 1);
+        int from = prefixEnd(name);
+        return from == 0 ? name : name.substring(from);
     }
 
     /**
@@ -81,7 +103,22 @@ public enum NamingStrategy {
      * @return
      */
     public static String removePrefixAndCamel(String name) {
-        return underlineToCamel(removePrefix(name));
+        if (StringUtils.isBlank(name)) {
+            return "";
+        }
+        char[] chars = new char[name.length()];
+        int length = underlineToCamel(name, prefixEnd(name), chars);
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * 第一个下划线之后的位置，不含下划线时为0
+     *
+     * @param name 原始名称
+     * @return 去掉前缀后的开始位置
+     */
+    static int prefixEnd(String name) {
+        return name.indexOf(UNDERLINE) + 1;
     }
 
 }
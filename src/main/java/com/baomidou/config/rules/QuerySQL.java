@@ -9,25 +9,50 @@ package com.baomidou.config.rules;
  * @since 2016-04-25
  */
 public enum QuerySQL {
-    MYSQL("mysql", "show tables", "show table status",
+    MYSQL("mysql", "SELECT TABLE_NAME AS NAME, TABLE_COMMENT AS COMMENT FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE TABLE_SCHEMA = DATABASE()%s", "show table status WHERE 1 = 1%s",
             "show full fields from %s",
-            "NAME", "COMMENT", "FIELD", "TYPE", "COMMENT", "KEY"),
-
-    ORACLE("oracle", "SELECT * FROM USER_TABLES", "SELECT * FROM USER_TAB_COMMENTS",
+            "SELECT TABLE_NAME, COLUMN_NAME AS FIELD, COLUMN_TYPE AS TYPE, COLUMN_COMMENT AS COMMENT, " +
+                    "COLUMN_KEY AS `KEY` FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_SCHEMA = DATABASE()%s " +
+                    "ORDER BY TABLE_NAME, ORDINAL_POSITION",
+            "SELECT TABLE_NAME, CONCAT(COUNT(*), '-', SUM(CRC32(CONCAT_WS('|', ORDINAL_POSITION, COLUMN_NAME, " +
+                    "COLUMN_TYPE, COLUMN_KEY, COLUMN_COMMENT)))) AS FINGERPRINT FROM INFORMATION_SCHEMA.COLUMNS " +
+                    "WHERE TABLE_SCHEMA = DATABASE()%s GROUP BY TABLE_NAME",
+            "NAME", "COMMENT", "TABLE_NAME", "FIELD", "TYPE", "COMMENT", "KEY"),
+
+    ORACLE("oracle", "SELECT TABLE_NAME, COMMENTS FROM USER_TAB_COMMENTS WHERE 1 = 1%s", "SELECT * FROM USER_TAB_COMMENTS WHERE 1 = 1%s",
             "SELECT AB.COLUMN_NAME,AB.DATA_TYPE, AB.COMMENTS, DECODE(AC.POSITION, '1', 'PRI') KEY " +
-                    "FROM (SELECT A.COLUMN_NAME, A.DATA_TYPE, B.COMMENTS FROM USER_TAB_COLUMNS A, USER_COL_COMMENTS B " +
+                    "FROM (SELECT A.COLUMN_NAME, " + QuerySQL.ORACLE_DATA_TYPE + ", B.COMMENTS FROM USER_TAB_COLUMNS A, USER_COL_COMMENTS B " +
                     "WHERE A.TABLE_NAME = B.TABLE_NAME AND A.COLUMN_NAME = B.COLUMN_NAME AND A.TABLE_NAME = '%s') AB " +
                     "LEFT JOIN(SELECT CU.COLUMN_NAME, CU.POSITION FROM USER_CONS_COLUMNS CU, USER_CONSTRAINTS AU " +
                     "WHERE CU.CONSTRAINT_NAME = AU.CONSTRAINT_NAME AND AU.CONSTRAINT_TYPE = 'P' " +
                     "AND AU.TABLE_NAME = '%s') AC ON AB.COLUMN_NAME = AC.COLUMN_NAME ",
-            "TABLE_NAME", "COMMENTS", "COLUMN_NAME", "DATA_TYPE", "COMMENTS", "KEY");
+            "SELECT * FROM (SELECT A.TABLE_NAME, A.COLUMN_ID, A.COLUMN_NAME, " + QuerySQL.ORACLE_DATA_TYPE + ", B.COMMENTS, " +
+                    "DECODE(C.POSITION, '1', 'PRI') KEY FROM USER_TAB_COLUMNS A LEFT JOIN USER_COL_COMMENTS B " +
+                    "ON A.TABLE_NAME = B.TABLE_NAME AND A.COLUMN_NAME = B.COLUMN_NAME " +
+                    "LEFT JOIN (SELECT CU.TABLE_NAME, CU.COLUMN_NAME, CU.POSITION FROM USER_CONS_COLUMNS CU, " +
+                    "USER_CONSTRAINTS AU WHERE CU.CONSTRAINT_NAME = AU.CONSTRAINT_NAME AND AU.CONSTRAINT_TYPE = 'P') C " +
+                    "ON A.TABLE_NAME = C.TABLE_NAME AND A.COLUMN_NAME = C.COLUMN_NAME) " +
+                    "WHERE 1 = 1%s ORDER BY TABLE_NAME, COLUMN_ID",
+            "SELECT * FROM (SELECT OBJECT_NAME TABLE_NAME, TO_CHAR(LAST_DDL_TIME, 'YYYYMMDDHH24MISS') FINGERPRINT " +
+                    "FROM USER_OBJECTS WHERE OBJECT_TYPE IN ('TABLE', 'VIEW')) WHERE 1 = 1%s",
+            "TABLE_NAME", "COMMENTS", "TABLE_NAME", "COLUMN_NAME", "DATA_TYPE", "COMMENTS", "KEY");
+
+    /**
+     * Oracle 的 DATA_TYPE 不含精度，NUMBER 类型补充精度与小数位，用于区分整数与小数（常量在编译期内联，可在枚举值中引用）
+     */
+    private static final String ORACLE_DATA_TYPE = "CASE WHEN A.DATA_TYPE = 'NUMBER' AND A.DATA_PRECISION IS NOT NULL " +
+            "THEN 'NUMBER(' || A.DATA_PRECISION || ',' || NVL(A.DATA_SCALE, 0) || ')' ELSE A.DATA_TYPE END DATA_TYPE";
 
     private final String dbType;
     private final String tablesSql;
     private final String tableCommentsSql;
     private final String tableFieldsSql;
+    private final String tableFieldsBulkSql;
+    private final String tableFingerprintSql;
     private final String tableName;
     private final String tableComment;
+    private final String fieldTableName;
     private final String fieldName;
     private final String fieldType;
     private final String fieldComment;
@@ -35,14 +60,19 @@ public enum QuerySQL {
 
 
     QuerySQL(final String dbType, final String tablesSql, final String tableCommentsSql,
-             final String tableFieldsSql, final String tableName, final String tableComment, final String fieldName,
+             final String tableFieldsSql, final String tableFieldsBulkSql, final String tableFingerprintSql,
+             final String tableName,
+             final String tableComment, final String fieldTableName, final String fieldName,
              final String fieldType, final String fieldComment, final String fieldKey) {
         this.dbType = dbType;
         this.tablesSql = tablesSql;
         this.tableCommentsSql = tableCommentsSql;
         this.tableFieldsSql = tableFieldsSql;
+        this.tableFieldsBulkSql = tableFieldsBulkSql;
+        this.tableFingerprintSql = tableFingerprintSql;
         this.tableName = tableName;
         this.tableComment = tableComment;
+        this.fieldTableName = fieldTableName;
         this.fieldName = fieldName;
         this.fieldType = fieldType;
         this.fieldComment = fieldComment;
@@ -53,10 +83,16 @@ public enum QuerySQL {
         return dbType;
     }
 
+    /**
+     * 只查询表名及注释的轻量语句，不触发表统计信息的计算，其中的%s用于拼接表名过滤条件
+     */
     public String getTablesSql() {
         return tablesSql;
     }
 
+    /**
+     * 查询表状态及注释的语句（MySQL为show table status），其中的%s用于拼接表名过滤条件
+     */
     public String getTableCommentsSql() {
         return tableCommentsSql;
     }
@@ -65,6 +101,20 @@ public enum QuerySQL {
         return tableFieldsSql;
     }
 
+    /**
+     * 一次性查询所有表字段的语句，结果按表名、字段顺序排列，其中的%s用于拼接表名过滤条件
+     */
+    public String getTableFieldsBulkSql() {
+        return tableFieldsBulkSql;
+    }
+
+    /**
+     * 查询表结构指纹的语句，结果包含表名列与FINGERPRINT列，其中的%s用于拼接表名过滤条件
+     */
+    public String getTableFingerprintSql() {
+        return tableFingerprintSql;
+    }
+
     public String getTableName() {
         return tableName;
     }
@@ -73,6 +123,13 @@ public enum QuerySQL {
         return tableComment;
     }
 
+    /**
+     * 批量查询结果中字段所属表名的列，同时用于轻量表查询的过滤条件
+     */
+    public String getFieldTableName() {
+        return fieldTableName;
+    }
+
     public String getFieldName() {
         return fieldName;
     }
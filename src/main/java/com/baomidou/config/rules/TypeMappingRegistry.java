@@ -0,0 +1,255 @@
+package com.baomidou.config.rules;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 字段类型到JAVA类型的映射表
+ * 字段类型先解析为基础类型、精度与小数位（例如 decimal(10,2) unsigned 解析为 decimal、10、2），
+ * 再按基础类型查表；同一字段类型只解析一次。
+ * 各数据库的默认映射见 {@link #defaults(QuerySQL)}，用户配置的映射优先于默认映射；
+ * MySQL、Oracle 以外的数据库（没有对应的 QuerySQL）使用按 JDBC 标准类型与常见数据库类型名称整理的通用映射。
+ */
+public class TypeMappingRegistry {
+
+    /**
+     * 未知类型对应的JAVA类型
+     */
+    public static final String DEFAULT_TYPE = "String";
+
+    private static final Map<QuerySQL, Map<String, String>> DEFAULTS = new EnumMap<QuerySQL, Map<String, String>>(
+            QuerySQL.class);
+
+    /**
+     * 其他数据库的通用映射，包括 SQL 标准类型名称与 PostgreSQL、H2、SQL Server、DB2 等的常见别名
+     */
+    private static final Map<String, String> GENERIC = new HashMap<String, String>();
+
+    static {
+        Map<String, String> mysql = new HashMap<String, String>();
+        put(mysql, "String", "char", "varchar", "tinytext", "text", "mediumtext", "longtext");
+        put(mysql, "Integer", "tinyint", "smallint", "mediumint", "int", "integer");
+        put(mysql, "Long", "bigint");
+        put(mysql, "Date", "date", "datetime", "timestamp");
+        put(mysql, "Boolean", "bit");
+        put(mysql, "BigDecimal", "decimal", "numeric");
+        put(mysql, "byte[]", "tinyblob", "blob", "mediumblob", "longblob");
+        put(mysql, "Float", "float");
+        put(mysql, "Double", "double", "real");
+        DEFAULTS.put(QuerySQL.MYSQL, mysql);
+
+        Map<String, String> oracle = new HashMap<String, String>();
+        put(oracle, "String", "char", "nchar", "varchar", "varchar2", "nvarchar2", "clob", "nclob", "long");
+        put(oracle, "Date", "date", "timestamp", "timestamp with time zone", "timestamp with local time zone");
+        put(oracle, "BigDecimal", "number");
+        put(oracle, "Float", "float", "binary_float");
+        put(oracle, "Double", "binary_double");
+        put(oracle, "Object", "blob");
+        put(oracle, "byte[]", "raw", "long raw");
+        DEFAULTS.put(QuerySQL.ORACLE, oracle);
+
+        put(GENERIC, "String", "char", "character", "nchar", "national char", "national character", "bpchar",
+                "varchar", "character varying", "nvarchar", "national character varying", "varchar_ignorecase",
+                "varchar2", "nvarchar2", "text", "ntext", "tinytext", "mediumtext", "longtext", "clob", "nclob",
+                "character large object", "national character large object", "long varchar", "string", "name",
+                "citext", "uuid", "uniqueidentifier", "json", "jsonb", "xml", "enum", "interval");
+        put(GENERIC, "Integer", "tinyint", "smallint", "mediumint", "int", "integer", "int2", "int4",
+                "smallserial", "serial", "serial4", "int identity", "smallint identity", "year");
+        put(GENERIC, "Long", "bigint", "int8", "bigserial", "serial8", "bigint identity");
+        put(GENERIC, "Boolean", "bit", "bool", "boolean");
+        put(GENERIC, "BigDecimal", "decimal", "dec", "numeric", "number", "decfloat", "money", "smallmoney");
+        put(GENERIC, "Float", "real", "float4", "smallfloat");
+        put(GENERIC, "Double", "float", "float8", "double", "double precision");
+        put(GENERIC, "Date", "date", "time", "timetz", "time with time zone", "time without time zone",
+                "datetime", "datetime2", "smalldatetime", "datetimeoffset", "timestamp", "timestamptz",
+                "timestamp with time zone", "timestamp without time zone", "timestamp with local time zone");
+        put(GENERIC, "byte[]", "binary", "varbinary", "binary varying", "bytea", "blob", "tinyblob",
+                "mediumblob", "longblob", "binary large object", "image", "raw", "long raw", "long varbinary");
+    }
+
+    private final QuerySQL querySQL;
+
+    /**
+     * 基础类型与JAVA类型
+     */
+    private final Map<String, String> mappings;
+
+    /**
+     * 用户配置的基础类型，不再按精度推断
+     */
+    private final Map<String, String> overrides = new HashMap<String, String>();
+
+    /**
+     * 已解析的字段类型
+     */
+    private final ConcurrentMap<String, String> resolved = new ConcurrentHashMap<String, String>();
+
+    /**
+     * @param querySQL  数据库类型
+     * @param overrides 用户配置的映射，键为基础类型（忽略大小写），可为空
+     */
+    public TypeMappingRegistry(QuerySQL querySQL, Map<String, String> overrides) {
+        this.querySQL = querySQL;
+        this.mappings = new HashMap<String, String>(defaults(querySQL));
+        if (null != overrides) {
+            for (Map.Entry<String, String> entry : overrides.entrySet()) {
+                String baseType = ColumnType.parse(entry.getKey()).getBaseType();
+                this.overrides.put(baseType, entry.getValue().trim());
+                this.mappings.put(baseType, entry.getValue().trim());
+            }
+        }
+    }
+
+    /**
+     * 数据库的默认映射
+     *
+     * @param querySQL 数据库类型，其他数据库为空
+     * @return 基础类型与JAVA类型
+     */
+    public static Map<String, String> defaults(QuerySQL querySQL) {
+        if (null == querySQL) {
+            return GENERIC;
+        }
+        Map<String, String> defaults = DEFAULTS.get(querySQL);
+        return null == defaults ? DEFAULTS.get(QuerySQL.MYSQL) : defaults;
+    }
+
+    /**
+     * 获取字段类型对应的JAVA类型
+     *
+     * @param type 字段类型，例如 varchar(64)、NUMBER(19,0)
+     * @return JAVA类型
+     */
+    public String getJavaType(String type) {
+        if (null == type) {
+            return DEFAULT_TYPE;
+        }
+        String javaType = resolved.get(type);
+        if (null == javaType) {
+            javaType = resolve(ColumnType.parse(type));
+            resolved.put(type, javaType);
+        }
+        return javaType;
+    }
+
+    private String resolve(ColumnType columnType) {
+        String baseType = columnType.getBaseType();
+        if (!overrides.containsKey(baseType) && QuerySQL.ORACLE == querySQL && "number".equals(baseType)) {
+            return numberType(columnType.getPrecision(), columnType.getScale());
+        }
+        String javaType = mappings.get(baseType);
+        return null == javaType ? DEFAULT_TYPE : javaType;
+    }
+
+    /**
+     * 按精度与小数位确定数值类型：有小数位或未指定精度时为 BigDecimal，整数按位数选择 Integer、Long
+     *
+     * @param precision 精度，未指定时小于0
+     * @param scale     小数位，未指定时小于0
+     * @return JAVA类型
+     */
+    private static String numberType(int precision, int scale) {
+        if (precision <= 0 || scale > 0) {
+            return "BigDecimal";
+        } else if (precision <= 9) {
+            return "Integer";
+        } else if (precision <= 19) {
+            return "Long";
+        }
+        return "BigDecimal";
+    }
+
+    private static void put(Map<String, String> mappings, String javaType, String... baseTypes) {
+        for (String baseType : baseTypes) {
+            mappings.put(baseType, javaType);
+        }
+    }
+
+    /**
+     * 解析后的字段类型
+     */
+    public static class ColumnType {
+
+        private final String baseType;
+        private final int precision;
+        private final int scale;
+
+        private ColumnType(String baseType, int precision, int scale) {
+            this.baseType = baseType;
+            this.precision = precision;
+            this.scale = scale;
+        }
+
+        /**
+         * 解析字段类型：基础类型转小写，去掉括号部分与 unsigned、zerofill 等修饰，多个空白合并为一个；
+         * 第一个括号中的数字为精度与小数位
+         *
+         * @param type 字段类型
+         * @return 解析结果
+         */
+        public static ColumnType parse(String type) {
+            StringBuilder base = new StringBuilder(type.length());
+            int precision = -1;
+            int scale = -1;
+            boolean firstGroup = true;
+            int i = 0;
+            while (i < type.length()) {
+                char c = type.charAt(i);
+                if (c == '(') {
+                    int end = type.indexOf(')', i);
+                    if (end == -1) {
+                        end = type.length();
+                    }
+                    if (firstGroup) {
+                        String group = type.substring(i + 1, end);
+                        int comma = group.indexOf(',');
+                        precision = parseInt(comma == -1 ? group : group.substring(0, comma));
+                        scale = comma == -1 ? -1 : parseInt(group.substring(comma + 1));
+                        firstGroup = false;
+                    }
+                    i = end + 1;
+                    continue;
+                }
+                if (Character.isWhitespace(c)) {
+                    if (base.length() > 0 && base.charAt(base.length() - 1) != ' ') {
+                        base.append(' ');
+                    }
+                } else {
+                    base.append(Character.toLowerCase(c));
+                }
+                i++;
+            }
+            String baseType = base.toString().trim();
+            for (String modifier : new String[]{" zerofill", " unsigned", " signed"}) {
+                if (baseType.endsWith(modifier)) {
+                    baseType = baseType.substring(0, baseType.length() - modifier.length());
+                }
+            }
+            return new ColumnType(baseType, precision, scale);
+        }
+
+        private static int parseInt(String value) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                // 例如 Oracle 的 NUMBER(*,0)
+                return -1;
+            }
+        }
+
+        public String getBaseType() {
+            return baseType;
+        }
+
+        public int getPrecision() {
+            return precision;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+    }
+}
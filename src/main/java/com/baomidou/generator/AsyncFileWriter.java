@@ -0,0 +1,98 @@
+package com.baomidou.generator;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步写入文件，合成模板的线程只提交文件内容，由独立的写入线程完成文件的打开、写入与关闭
+ * 网络文件系统上单个文件的打开与关闭耗时较长，写入与模板合成并行可以掩盖这部分延迟。
+ * 等待写入的文件数量有上限，写入跟不上时由提交的线程直接写入，避免文件内容在内存中无限堆积。
+ */
+public class AsyncFileWriter {
+
+    /**
+     * 每个写入线程允许等待写入的文件数量
+     */
+    private static final int QUEUE_SIZE_PER_THREAD = 256;
+
+    private final OutputFileWriter writer;
+
+    /**
+     * 写入线程池，线程数为0时为空，在提交的线程中直接写入
+     */
+    private final ExecutorService executor;
+
+    /**
+     * @param writer  文件写入工具
+     * @param threads 写入线程数，0表示在提交的线程中同步写入
+     */
+    public AsyncFileWriter(OutputFileWriter writer, int threads) {
+        this.writer = writer;
+        if (threads > 0) {
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<Runnable>(threads * QUEUE_SIZE_PER_THREAD),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * 提交文件内容
+     *
+     * @param outputFile 输出文件
+     * @param content    文件内容
+     * @param metrics    耗时统计，记录实际的写入耗时
+     * @return 是否实际写入了文件，写入失败时抛出 IOException
+     */
+    public Future<Boolean> submit(final String outputFile, final byte[] content, final GenerateMetrics metrics) {
+        Callable<Boolean> task = new Callable<Boolean>() {
+            public Boolean call() throws IOException {
+                long start = System.nanoTime();
+                try {
+                    return writer.write(outputFile, content);
+                } finally {
+                    metrics.record(GenerateMetrics.WRITE, start);
+                }
+            }
+        };
+        if (null != executor) {
+            return executor.submit(task);
+        }
+        FutureTask<Boolean> future = new FutureTask<Boolean>(task);
+        future.run();
+        return future;
+    }
+
+    /**
+     * 等待所有文件写入完成，按配置将文件同步到磁盘，之后不能再提交文件
+     */
+    public void finish() throws IOException, InterruptedException {
+        if (null != executor) {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // 继续等待剩余的文件写入完成
+            }
+        }
+        writer.sync();
+    }
+
+    /**
+     * 放弃尚未写入的文件，用于生成失败时
+     */
+    public void abort() {
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    public OutputFileWriter getWriter() {
+        return writer;
+    }
+}
@@ -0,0 +1,263 @@
+package com.baomidou.generator;
+
+import com.baomidou.config.ConstVal;
+import com.baomidou.config.po.TableField;
+import com.baomidou.config.po.TableInfo;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * 内置模板引擎，直接按代码生成五种标准文件，不解析模板也不通过反射读取上下文数据
+ * 输出与 classpath 下 /template 中对应的 velocity 模板逐字节一致（包括模板中的空白）；
+ * 其他模板交给 velocity 处理。
+ */
+public class BuiltinTemplateEngine implements TemplateEngine {
+
+    /**
+     * 非标准模板使用的velocity引擎，用到时才创建
+     */
+    private volatile VelocityTemplateEngine velocity;
+
+    public void init(String... templatePaths) throws Exception {
+        for (String templatePath : templatePaths) {
+            if (!isBuiltin(templatePath)) {
+                getVelocity().init(templatePath);
+            }
+        }
+    }
+
+    public void merge(String templatePath, Map<String, Object> context, Writer writer) throws IOException {
+        if (ConstVal.TEMPLATE_ENTITY.equals(templatePath)) {
+            entity(context, writer);
+        } else if (ConstVal.TEMPLATE_MAPPER.equals(templatePath)) {
+            mapper(context, writer);
+        } else if (ConstVal.TEMPLATE_XML.equals(templatePath)) {
+            xml(context, writer);
+        } else if (ConstVal.TEMPLATE_SERVICE.equals(templatePath)) {
+            service(context, writer);
+        } else if (ConstVal.TEMPLATE_SERVICEIMPL.equals(templatePath)) {
+            serviceImpl(context, writer);
+        } else {
+            getVelocity().merge(templatePath, context, writer);
+        }
+    }
+
+    /**
+     * @return 非标准模板实际解析的次数，标准模板不需要解析
+     */
+    public int getParseCount() {
+        return null == velocity ? 0 : velocity.getParseCount();
+    }
+
+    private static boolean isBuiltin(String templatePath) {
+        return ConstVal.TEMPLATE_ENTITY.equals(templatePath) || ConstVal.TEMPLATE_MAPPER.equals(templatePath)
+                || ConstVal.TEMPLATE_XML.equals(templatePath) || ConstVal.TEMPLATE_SERVICE.equals(templatePath)
+                || ConstVal.TEMPLATE_SERVICEIMPL.equals(templatePath);
+    }
+
+    private VelocityTemplateEngine getVelocity() {
+        if (null == velocity) {
+            synchronized (this) {
+                if (null == velocity) {
+                    velocity = new VelocityTemplateEngine();
+                }
+            }
+        }
+        return velocity;
+    }
+
+    /**
+     * entity.java.vm
+     */
+    private void entity(Map<String, Object> context, Writer w) throws IOException {
+        TableInfo table = (TableInfo) context.get("table");
+        w.write("package ");
+        w.write(ref(pkg(context, ConstVal.ENTITY), "${package.Entity}"));
+        w.write(";\n\nimport com.baomidou.mybatisplus.annotations.TableField;\n"
+                + "import com.baomidou.mybatisplus.annotations.TableId;\n"
+                + "import com.baomidou.mybatisplus.annotations.TableName;\n\n"
+                + "import java.io.Serializable;\n");
+        for (String importPackage : table.getImportPackages()) {
+            w.write("import ");
+            w.write(importPackage);
+            w.write(";\n");
+        }
+        w.write("\n/**\n * ");
+        w.write(ref(table.getComment(), "${table.comment}"));
+        header(context, w);
+        w.write("@TableName(\"");
+        w.write(ref(table.getName(), "${table.name}"));
+        w.write("\")\npublic class ");
+        w.write(ref(context.get("entity"), "${entity}"));
+        w.write(" implements Serializable {\n\n    @TableField(exist = false)\n"
+                + "    private static final long serialVersionUID = 1L;\n\n    ");
+        for (TableField field : table.getFields()) {
+            w.write("    /**\n     * ");
+            w.write(ref(field.getComment(), "${field.comment}"));
+            w.write("\n     */\n    ");
+            if (field.isKeyFlag()) {
+                w.write("    @TableId(type = IdType.");
+                w.write(ref(context.get("idGenType"), "${idGenType}"));
+                w.write(")\n    ");
+            }
+            w.write("    ");
+            if (field.isConvert()) {
+                w.write("    @TableField(value=\"");
+                w.write(field.getName());
+                w.write("\")\n    ");
+            }
+            w.write("    private ");
+            w.write(field.getPropertyType());
+            w.write(" ");
+            w.write(field.getPropertyName());
+            w.write(";\n    ");
+        }
+        w.write("\n    ");
+        for (TableField field : table.getFields()) {
+            // 与模板一致：#set 行的缩进不输出，#else 与 #end 行的缩进会输出
+            String prefix;
+            if ("Boolean".equals(field.getPropertyName())) {
+                prefix = "is";
+                w.write("                    ");
+            } else {
+                prefix = "get";
+                w.write("                ");
+            }
+            context.put("getprefix", prefix);
+            w.write("\n    public ");
+            w.write(field.getPropertyType());
+            w.write(" ");
+            w.write(prefix);
+            w.write(field.getCapitalName());
+            w.write("() {\n        return ");
+            w.write(field.getPropertyName());
+            w.write(";\n    }\n\n    public void set");
+            w.write(field.getCapitalName());
+            w.write("(");
+            w.write(field.getPropertyType());
+            w.write(" ");
+            w.write(field.getPropertyName());
+            w.write(") {\n        this.");
+            w.write(field.getPropertyName());
+            w.write(" = ");
+            w.write(field.getPropertyName());
+            w.write(";\n    }\n    ");
+        }
+        w.write("}\n");
+    }
+
+    /**
+     * mapper.java.vm
+     */
+    private void mapper(Map<String, Object> context, Writer w) throws IOException {
+        TableInfo table = (TableInfo) context.get("table");
+        w.write("package ");
+        w.write(ref(pkg(context, ConstVal.MAPPER), "${package.Mapper}"));
+        w.write(";\n\nimport ");
+        entityImport(context, w);
+        w.write(";\nimport com.baomidou.mybatisplus.mapper.AutoMapper;\n\n/**\n * Mapper接口");
+        header(context, w);
+        w.write("public interface ");
+        w.write(ref(table.getMapperName(), "${table.mapperName}"));
+        w.write(" extends AutoMapper<");
+        w.write(ref(context.get("entity"), "${entity}"));
+        w.write("> {\n\n}");
+    }
+
+    /**
+     * mapper.xml.vm
+     */
+    private void xml(Map<String, Object> context, Writer w) throws IOException {
+        TableInfo table = (TableInfo) context.get("table");
+        w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" "
+                + "\"http://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n<mapper namespace=\"");
+        w.write(ref(pkg(context, ConstVal.MAPPER), "${package.Mapper}"));
+        w.write(".");
+        w.write(ref(table.getMapperName(), "${table.mapperName}"));
+        w.write("\">\n");
+        if (Boolean.TRUE.equals(context.get("enableCache"))) {
+            w.write("<!--开启二级缓存-->\n<cache type=\"org.mybatis.caches.ehcache.LoggingEhcache\"/>\n");
+        }
+        w.write("\n    <!-- 通用查询结果列-->\n    <sql id=\"Base_Column_List\">\n        ");
+        w.write(ref(table.getFieldNames(), "${table.fieldNames}"));
+        w.write("\n    </sql>\n</mapper>\n");
+    }
+
+    /**
+     * service.java.vm
+     */
+    private void service(Map<String, Object> context, Writer w) throws IOException {
+        TableInfo table = (TableInfo) context.get("table");
+        w.write("package ");
+        w.write(ref(pkg(context, ConstVal.SERIVCE), "${package.Service}"));
+        w.write(";\n\nimport ");
+        entityImport(context, w);
+        w.write(";\nimport ");
+        w.write(ref(context.get("superClassPackage"), "${superClassPackage}"));
+        w.write(";\n\n/**\n * 服务类");
+        header(context, w);
+        w.write("public interface ");
+        w.write(ref(table.getServiceName(), "${table.serviceName}"));
+        w.write(" extends ");
+        w.write(ref(context.get("superClass"), "${superClass}"));
+        w.write("<");
+        w.write(ref(context.get("entity"), "${entity}"));
+        w.write("> {\n\n\n}\n");
+    }
+
+    /**
+     * serviceImpl.java.vm
+     */
+    private void serviceImpl(Map<String, Object> context, Writer w) throws IOException {
+        TableInfo table = (TableInfo) context.get("table");
+        String serviceName = ref(table.getServiceName(), "${table.serviceName}");
+        w.write("package ");
+        w.write(ref(pkg(context, ConstVal.SERVICEIMPL), "${package.ServiceImpl}"));
+        w.write(";\n\nimport ");
+        entityImport(context, w);
+        w.write(";\nimport ");
+        w.write(ref(pkg(context, ConstVal.SERIVCE), "${package.Service}"));
+        w.write(".");
+        w.write(serviceName);
+        w.write("\nimport org.springframework.stereotype.Service;\n\n/**\n * 服务实现类");
+        header(context, w);
+        w.write("@Service\npublic class ");
+        w.write(ref(table.getServiceImplName(), "${table.serviceImplName}"));
+        w.write(" implements ");
+        w.write(serviceName);
+        w.write(" {\n\n}\n");
+    }
+
+    /**
+     * 类注释中的作者与日期，从类说明的下一行开始到注释结束
+     */
+    private static void header(Map<String, Object> context, Writer w) throws IOException {
+        w.write("\n *\n * @author ");
+        w.write(ref(context.get("author"), "${author}"));
+        w.write("\n * @since ");
+        w.write(ref(context.get("date"), "${date}"));
+        w.write("\n */\n");
+    }
+
+    private static void entityImport(Map<String, Object> context, Writer w) throws IOException {
+        w.write(ref(pkg(context, ConstVal.ENTITY), "${package.Entity}"));
+        w.write(".");
+        w.write(ref(context.get("entity"), "${entity}"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object pkg(Map<String, Object> context, String key) {
+        Map<String, String> packageInfo = (Map<String, String>) context.get("package");
+        return null == packageInfo ? null : packageInfo.get(key);
+    }
+
+    /**
+     * 与velocity一致，值为空时原样输出引用
+     */
+    private static String ref(Object value, String reference) {
+        return null == value ? reference : value.toString();
+    }
+}
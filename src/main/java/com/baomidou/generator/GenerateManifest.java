@@ -0,0 +1,138 @@
+package com.baomidou.generator;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.TypeReference;
+import com.baomidou.config.ConstVal;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量生成清单
+ * 记录每个输出文件对应的（模板内容 + 上下文数据）摘要，摘要未变化的文件无需重新生成
+ */
+public class GenerateManifest {
+
+    /**
+     * 输出文件路径与摘要
+     */
+    private final Map<String, String> hashes = new ConcurrentHashMap<String, String>();
+
+    /**
+     * 读取清单文件，文件不存在或无法解析时返回空清单
+     *
+     * @param file 清单文件
+     * @return 清单
+     */
+    public static GenerateManifest load(File file) {
+        GenerateManifest manifest = new GenerateManifest();
+        if (file.isFile()) {
+            try {
+                Map<String, String> data = JSON.parseObject(FileUtils.fileRead(file, ConstVal.UTF8),
+                        new TypeReference<Map<String, String>>() {
+                        });
+                if (null != data) {
+                    manifest.hashes.putAll(data);
+                }
+            } catch (Exception e) {
+                System.err.println("增量生成清单 " + file + " 读取失败，将重新生成全部文件！");
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 写入清单文件
+     *
+     * @param file 清单文件
+     */
+    public void save(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (null != dir && !dir.exists()) {
+            dir.mkdirs();
+        }
+        FileUtils.fileWrite(file, ConstVal.UTF8, JSON.toJSONString(hashes));
+    }
+
+    /**
+     * 输出文件是否存在且摘要未变化
+     *
+     * @param outputFile 输出文件
+     * @param hash       当前摘要
+     * @return 是否未变化
+     */
+    public boolean isUnchanged(String outputFile, String hash) {
+        return hash.equals(hashes.get(outputFile)) && new File(outputFile).exists();
+    }
+
+    /**
+     * 记录输出文件的摘要
+     *
+     * @param outputFile 输出文件
+     * @param hash       摘要
+     */
+    public void put(String outputFile, String hash) {
+        hashes.put(outputFile, hash);
+    }
+
+    /**
+     * 计算MD5摘要
+     *
+     * @param parts 参与计算的内容
+     * @return 十六进制摘要
+     */
+    public static String md5(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            for (String part : parts) {
+                digest.update(part.getBytes(ConstVal.UTF8));
+                // 分隔各部分，避免拼接后产生相同内容
+                digest.update((byte) 0);
+            }
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 计算文件内容的MD5摘要
+     *
+     * @param file 文件
+     * @return 十六进制摘要
+     */
+    public static String md5(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] buffer = new byte[8192];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, len);
+            }
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package com.baomidou.generator;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import com.baomidou.config.ConstVal;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 生成过程各阶段的耗时统计
+ * 每个阶段记录每次执行的耗时，汇总时计算次数、总耗时、p50/p99与最大值；多线程执行的阶段总耗时为各线程耗时之和
+ */
+public class GenerateMetrics {
+
+    public static final String CONNECT = "connect";
+    public static final String CATALOG = "catalog";
+    public static final String FINGERPRINT = "fingerprint";
+    public static final String COLUMNS = "columns";
+    public static final String COLUMNS_BULK = "columns bulk";
+    public static final String CONTEXT = "context";
+    public static final String RENDER = "render ";
+    public static final String WRITE = "write";
+
+    private static final double NANOS_PER_MILLI = 1000000D;
+
+    /**
+     * 开始时间
+     */
+    private final long startTime = System.nanoTime();
+    /**
+     * 阶段名称与每次执行的耗时（纳秒），按首次记录的顺序输出
+     */
+    private final Map<String, Samples> phases = new LinkedHashMap<String, Samples>();
+
+    /**
+     * 记录一次阶段耗时
+     *
+     * @param phase     阶段名称
+     * @param startNano 开始时间，取自 System.nanoTime()
+     */
+    public void record(String phase, long startNano) {
+        long elapsed = System.nanoTime() - startNano;
+        synchronized (phases) {
+            Samples samples = phases.get(phase);
+            if (null == samples) {
+                samples = new Samples();
+                phases.put(phase, samples);
+            }
+            samples.add(elapsed);
+        }
+    }
+
+    /**
+     * 生成汇总表
+     *
+     * @return 汇总表的各行
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<String>();
+        lines.add(String.format("%-24s %8s %12s %10s %10s %10s", "phase", "count", "total(ms)", "p50(ms)",
+                "p99(ms)", "max(ms)"));
+        for (Map.Entry<String, Map<String, Object>> entry : report().entrySet()) {
+            Map<String, Object> stat = entry.getValue();
+            lines.add(String.format("%-24s %8d %12.1f %10.2f %10.2f %10.2f", entry.getKey(), stat.get("count"),
+                    stat.get("totalMs"), stat.get("p50Ms"), stat.get("p99Ms"), stat.get("maxMs")));
+        }
+        lines.add(String.format("%-24s %8s %12.1f", "wall", "", (System.nanoTime() - startTime) / NANOS_PER_MILLI));
+        return lines;
+    }
+
+    /**
+     * 写入JSON格式的统计报告
+     *
+     * @param file 报告文件
+     */
+    public void writeJson(File file) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<String, Object>();
+        json.put("timestamp", System.currentTimeMillis());
+        json.putAll(toJson());
+        write(file, json);
+    }
+
+    /**
+     * 写入多个数据源的统计报告，各数据源的统计按名称分别输出
+     *
+     * @param file    报告文件
+     * @param schemas 数据源名称与耗时统计
+     */
+    public static void writeJson(File file, Map<String, GenerateMetrics> schemas) throws IOException {
+        Map<String, Object> reports = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, GenerateMetrics> entry : schemas.entrySet()) {
+            reports.put(entry.getKey(), entry.getValue().toJson());
+        }
+        Map<String, Object> json = new LinkedHashMap<String, Object>();
+        json.put("timestamp", System.currentTimeMillis());
+        json.put("schemas", reports);
+        write(file, json);
+    }
+
+    private Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<String, Object>();
+        json.put("wallMs", (System.nanoTime() - startTime) / NANOS_PER_MILLI);
+        json.put("phases", report());
+        return json;
+    }
+
+    private static void write(File file, Map<String, Object> json) throws IOException {
+        File dir = file.getParentFile();
+        if (null != dir && !dir.exists()) {
+            dir.mkdirs();
+        }
+        FileUtils.fileWrite(file, ConstVal.UTF8, JSON.toJSONString(json, SerializerFeature.PrettyFormat));
+    }
+
+    /**
+     * 计算各阶段的统计值
+     *
+     * @return 阶段名称与统计值
+     */
+    private Map<String, Map<String, Object>> report() {
+        Map<String, Map<String, Object>> report = new LinkedHashMap<String, Map<String, Object>>();
+        synchronized (phases) {
+            for (Map.Entry<String, Samples> entry : phases.entrySet()) {
+                long[] values = entry.getValue().sorted();
+                long total = 0;
+                for (long value : values) {
+                    total += value;
+                }
+                Map<String, Object> stat = new LinkedHashMap<String, Object>();
+                stat.put("count", values.length);
+                stat.put("totalMs", total / NANOS_PER_MILLI);
+                stat.put("p50Ms", percentile(values, 50) / NANOS_PER_MILLI);
+                stat.put("p99Ms", percentile(values, 99) / NANOS_PER_MILLI);
+                stat.put("maxMs", values[values.length - 1] / NANOS_PER_MILLI);
+                report.put(entry.getKey(), stat);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * 取已排序数据的百分位值（最近序数法）
+     */
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100D * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    /**
+     * 单个阶段的耗时数据
+     */
+    private static class Samples {
+
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.baomidou.generator;
+
+import com.baomidou.config.ConstVal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 生成文件的写入工具
+ * 可选择仅在内容变化时写入，避免更新未变化文件的修改时间而引起下游重新编译；
+ * 比较时忽略模板中的生成日期（${date}），只有日期不同的文件保留原有内容与日期，不会每天重新写入一次。
+ * 文件内容通过 FileChannel 一次写入；已确认存在的目录会被记录，同一目录下的文件不再重复检查与创建目录。
+ */
+public class OutputFileWriter {
+
+    /**
+     * 比较文件内容时的读取缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 是否仅在内容变化时写入
+     */
+    private final boolean writeIfChanged;
+
+    /**
+     * 是否在生成结束时将写入的文件同步到磁盘
+     */
+    private final boolean fsync;
+
+    /**
+     * 生成日期，比较内容时忽略文件中该日期所在位置的其他日期，为空时逐字节比较
+     */
+    private final byte[] date;
+
+    /**
+     * 已确认存在的目录
+     */
+    private final Set<String> dirs = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * 已写入、等待同步到磁盘的文件，不同步时为空
+     */
+    private final Queue<File> unsynced;
+
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger updated = new AtomicInteger();
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    public OutputFileWriter(boolean writeIfChanged) {
+        this(writeIfChanged, false);
+    }
+
+    /**
+     * @param writeIfChanged 是否仅在内容变化时写入
+     * @param fsync          是否在生成结束时（{@link #sync()}）将写入的文件同步到磁盘
+     */
+    public OutputFileWriter(boolean writeIfChanged, boolean fsync) {
+        this(writeIfChanged, fsync, null);
+    }
+
+    /**
+     * @param writeIfChanged 是否仅在内容变化时写入
+     * @param fsync          是否在生成结束时（{@link #sync()}）将写入的文件同步到磁盘
+     * @param date           写入文件内容中的生成日期（例如 2016-09-08），比较内容时忽略，可为空
+     */
+    public OutputFileWriter(boolean writeIfChanged, boolean fsync, String date) {
+        this.writeIfChanged = writeIfChanged;
+        this.fsync = fsync;
+        this.date = null == date ? null : date.getBytes(Charset.forName(ConstVal.UTF8));
+        this.unsynced = fsync ? new ConcurrentLinkedQueue<File>() : null;
+    }
+
+    /**
+     * 写入文件
+     *
+     * @param outputFile 输出文件
+     * @param content    文件内容
+     * @return 是否实际写入了文件
+     */
+    public boolean write(String outputFile, byte[] content) throws IOException {
+        File file = new File(outputFile);
+        boolean exists = file.exists();
+        if (exists && writeIfChanged && sameContent(file, content)) {
+            unchanged.incrementAndGet();
+            return false;
+        }
+        if (!exists) {
+            mkdirs(file.getParentFile());
+        }
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            FileChannel channel = out.getChannel();
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            out.close();
+        }
+        if (fsync) {
+            unsynced.add(file);
+        }
+        if (exists) {
+            updated.incrementAndGet();
+        } else {
+            created.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * 将已写入的文件同步到磁盘，未开启同步时不做任何处理
+     */
+    public void sync() throws IOException {
+        if (!fsync) {
+            return;
+        }
+        File file;
+        while (null != (file = unsynced.poll())) {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.getChannel().force(true);
+            } finally {
+                raf.close();
+            }
+        }
+    }
+
+    /**
+     * 创建目录，每个目录只检查一次
+     *
+     * @param dir 目录
+     */
+    private void mkdirs(File dir) throws IOException {
+        if (null == dir || dirs.contains(dir.getPath())) {
+            return;
+        }
+        if (!dir.isDirectory() && !dir.mkdirs() && !dir.isDirectory()) {
+            throw new IOException("无法创建目录：" + dir);
+        }
+        dirs.add(dir.getPath());
+    }
+
+    /**
+     * 比较文件内容，先比较长度，再逐块比较；新内容中生成日期所在的位置，已有文件中为同样格式的其他日期时也视为相同
+     *
+     * @param file    已有文件
+     * @param content 新内容
+     * @return 是否相同
+     */
+    private boolean sameContent(File file, byte[] content) throws IOException {
+        if (file.length() != content.length) {
+            return false;
+        }
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocate(Math.min(BUFFER_SIZE, Math.max(content.length, 1)));
+            int offset = 0;
+            int len;
+            List<Integer> dates = null;
+            while ((len = channel.read(buffer)) != -1) {
+                if (offset + len > content.length) {
+                    return false;
+                }
+                byte[] array = buffer.array();
+                for (int i = 0; i < len; i++) {
+                    if (array[i] != content[offset + i]) {
+                        if (null == dates) {
+                            dates = indexOfDates(content);
+                        }
+                        if (!isDateDigit(dates, content, offset + i, array[i])) {
+                            return false;
+                        }
+                    }
+                }
+                offset += len;
+                buffer.clear();
+            }
+            return offset == content.length;
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * 新内容中生成日期出现的位置
+     *
+     * @param content 新内容
+     * @return 各处日期的起始位置，未设置生成日期时为空列表
+     */
+    private List<Integer> indexOfDates(byte[] content) {
+        List<Integer> dates = new ArrayList<Integer>();
+        if (null == date || date.length == 0) {
+            return dates;
+        }
+        outer:
+        for (int i = 0; i <= content.length - date.length; i++) {
+            for (int j = 0; j < date.length; j++) {
+                if (content[i + j] != date[j]) {
+                    continue outer;
+                }
+            }
+            dates.add(i);
+            i += date.length - 1;
+        }
+        return dates;
+    }
+
+    /**
+     * 不同的字节是否为生成日期中的数字，且已有文件在该位置同样是数字
+     */
+    private boolean isDateDigit(List<Integer> dates, byte[] content, int index, byte existing) {
+        if (!isDigit(content[index]) || !isDigit(existing)) {
+            return false;
+        }
+        for (Integer start : dates) {
+            if (index >= start && index < start + date.length) {
+                return true;
+            }
+            if (start > index) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    public int getCreated() {
+        return created.get();
+    }
+
+    public int getUpdated() {
+        return updated.get();
+    }
+
+    public int getUnchanged() {
+        return unchanged.get();
+    }
+}
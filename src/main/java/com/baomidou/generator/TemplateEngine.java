@@ -0,0 +1,29 @@
+package com.baomidou.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * 模板引擎，将上下文数据与模板合成为文件内容
+ * 内置 velocity 与 builtin 两种实现，也可配置自定义实现的类全称（需要无参构造器）
+ */
+public interface TemplateEngine {
+
+    /**
+     * 预先加载模板，在多线程生成文件前调用一次
+     *
+     * @param templatePaths 模板路径
+     */
+    void init(String... templatePaths) throws Exception;
+
+    /**
+     * 合成模板，可被多个线程同时调用
+     * 同一张表的各模板共用一个上下文，模板可以修改上下文
+     *
+     * @param templatePath 模板路径
+     * @param context      上下文数据
+     * @param writer       输出
+     */
+    void merge(String templatePath, Map<String, Object> context, Writer writer) throws IOException;
+}
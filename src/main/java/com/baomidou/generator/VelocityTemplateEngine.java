@@ -0,0 +1,128 @@
+package com.baomidou.generator;
+
+import com.baomidou.config.ConstVal;
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.Velocity;
+import org.apache.velocity.app.VelocityEngine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Velocity 模板引擎，从 classpath 加载模板，每个模板只解析一次
+ * 配置了模板目录时，目录中与模板同名的文件（例如 entity.java.vm）优先于 classpath 中的模板。
+ */
+public class VelocityTemplateEngine implements TemplateEngine {
+
+    /**
+     * velocity引擎
+     */
+    private final VelocityEngine engine;
+    /**
+     * 已解析的模板
+     */
+    private final Map<String, Template> templates = new ConcurrentHashMap<String, Template>();
+    /**
+     * 自定义模板目录，未配置时为空
+     */
+    private final File templateDir;
+    /**
+     * 模板实际解析的次数（未命中缓存的次数）
+     */
+    private final AtomicInteger parses = new AtomicInteger();
+
+    public VelocityTemplateEngine() {
+        this(null);
+    }
+
+    /**
+     * @param templateDir 自定义模板目录，为空时只从 classpath 加载
+     */
+    public VelocityTemplateEngine(File templateDir) {
+        this.templateDir = templateDir;
+        Properties p = new Properties();
+        if (null != templateDir) {
+            // 先从模板目录加载，不使用velocity的缓存，模板修改后可通过 reload 重新解析
+            p.setProperty("resource.loader", "dir,file");
+            p.setProperty("dir.resource.loader.class", "org.apache.velocity.runtime.resource.loader.FileResourceLoader");
+            p.setProperty("dir.resource.loader.path", templateDir.getAbsolutePath());
+            p.setProperty("dir.resource.loader.cache", "false");
+        }
+        p.setProperty(ConstVal.VM_LOADPATH_KEY, ConstVal.VM_LOADPATH_VALUE);
+        p.setProperty(Velocity.FILE_RESOURCE_LOADER_PATH, "");
+        p.setProperty(Velocity.ENCODING_DEFAULT, ConstVal.UTF8);
+        p.setProperty(Velocity.INPUT_ENCODING, ConstVal.UTF8);
+        p.setProperty(Velocity.OUTPUT_ENCODING, ConstVal.UTF8);
+        p.setProperty("file.resource.loader.unicode", "true");
+        // 开启模板缓存且不检查模板修改
+        p.setProperty(ConstVal.VM_CACHE_KEY, "true");
+        p.setProperty(ConstVal.VM_CHECK_INTERVAL_KEY, "0");
+        engine = new VelocityEngine(p);
+    }
+
+    public void init(String... templatePaths) {
+        for (String templatePath : templatePaths) {
+            getTemplate(templatePath);
+        }
+    }
+
+    /**
+     * 重新解析模板，模板目录中的文件修改后调用
+     *
+     * @param templatePaths 模板路径
+     */
+    public void reload(String... templatePaths) {
+        for (String templatePath : templatePaths) {
+            templates.put(templatePath, loadTemplate(templatePath));
+        }
+    }
+
+    public void merge(String templatePath, Map<String, Object> context, Writer writer) throws IOException {
+        // VelocityContext 直接使用传入的Map保存数据，模板中的#set对同一张表的后续模板可见
+        getTemplate(templatePath).merge(new VelocityContext(context), writer);
+    }
+
+    private Template getTemplate(String templatePath) {
+        Template template = templates.get(templatePath);
+        if (null == template) {
+            template = loadTemplate(templatePath);
+            templates.put(templatePath, template);
+        }
+        return template;
+    }
+
+    private Template loadTemplate(String templatePath) {
+        File file = getTemplateFile(templateDir, templatePath);
+        Template template = engine.getTemplate(null == file ? templatePath : file.getName(), ConstVal.UTF8);
+        parses.incrementAndGet();
+        return template;
+    }
+
+    /**
+     * @return 模板实际解析的次数，每个模板只解析一次时等于模板数量
+     */
+    public int getParseCount() {
+        return parses.get();
+    }
+
+    /**
+     * 模板目录中替换指定模板的文件
+     *
+     * @param templateDir  模板目录，可为空
+     * @param templatePath 模板路径
+     * @return 文件，不存在时为空
+     */
+    public static File getTemplateFile(File templateDir, String templatePath) {
+        if (null == templateDir) {
+            return null;
+        }
+        File file = new File(templateDir, templatePath.substring(templatePath.lastIndexOf('/') + 1));
+        return file.isFile() ? file : null;
+    }
+}
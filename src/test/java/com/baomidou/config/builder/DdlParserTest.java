@@ -0,0 +1,164 @@
+package com.baomidou.config.builder;
+
+import com.baomidou.config.rules.DbType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * DDL脚本解析测试
+ */
+public class DdlParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void mysqlCreateTable() throws IOException {
+        SchemaSnapshot snapshot = parse(DbType.MYSQL,
+                "CREATE TABLE IF NOT EXISTS `user_role` (\n"
+                        + "  `user_id` bigint(20) NOT NULL COMMENT '用户ID',\n"
+                        + "  `role_id` bigint(20) NOT NULL COMMENT '角色ID',\n"
+                        + "  `remark` varchar(64) DEFAULT NULL COMMENT '备注',\n"
+                        + "  PRIMARY KEY (`user_id`, `role_id`),\n"
+                        + "  KEY `idx_role` (`role_id`)\n"
+                        + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户角色';");
+        SchemaSnapshot.Table table = table(snapshot, "user_role");
+        assertEquals("用户角色", table.getComment());
+        assertEquals(3, table.getColumns().size());
+        assertColumn(table.getColumns().get(0), "user_id", "bigint(20)", "用户ID", 1);
+        assertColumn(table.getColumns().get(1), "role_id", "bigint(20)", "角色ID", 2);
+        assertColumn(table.getColumns().get(2), "remark", "varchar(64)", "备注", 0);
+    }
+
+    @Test
+    public void mysqlAlterTable() throws IOException {
+        SchemaSnapshot snapshot = parse(DbType.MYSQL,
+                "CREATE TABLE user (id bigint PRIMARY KEY, name varchar(20), age int);\n"
+                        + "ALTER TABLE user ADD COLUMN email varchar(100) COMMENT '邮箱' AFTER name;\n"
+                        + "ALTER TABLE user DROP COLUMN age;\n"
+                        + "ALTER TABLE user MODIFY name varchar(50) NOT NULL COMMENT '姓名';");
+        List<SchemaSnapshot.Column> columns = table(snapshot, "user").getColumns();
+        assertEquals(3, columns.size());
+        assertColumn(columns.get(0), "id", "bigint", null, 1);
+        assertColumn(columns.get(1), "name", "varchar(50)", "姓名", 0);
+        assertColumn(columns.get(2), "email", "varchar(100)", "邮箱", 0);
+    }
+
+    @Test
+    public void oracleCommentOn() throws IOException {
+        SchemaSnapshot snapshot = parse(DbType.ORACLE,
+                "CREATE TABLE sys_user (\n"
+                        + "  id NUMBER(19) NOT NULL,\n"
+                        + "  user_name VARCHAR2(64 CHAR),\n"
+                        + "  CONSTRAINT pk_sys_user PRIMARY KEY (id)\n"
+                        + ");\n"
+                        + "COMMENT ON TABLE sys_user IS '系统用户';\n"
+                        + "COMMENT ON COLUMN sys_user.user_name IS '用户名';");
+        SchemaSnapshot.Table table = table(snapshot, "SYS_USER");
+        assertEquals("系统用户", table.getComment());
+        assertColumn(table.getColumns().get(0), "ID", "NUMBER(19)", null, 1);
+        assertColumn(table.getColumns().get(1), "USER_NAME", "VARCHAR2(64 CHAR)", "用户名", 0);
+    }
+
+    @Test
+    public void quotedIdentifiersAndLiterals() throws IOException {
+        SchemaSnapshot snapshot = parse(DbType.MYSQL,
+                "CREATE TABLE `order` (\n"
+                        + "  `id` bigint PRIMARY KEY COMMENT 'a;b',\n"
+                        + "  `desc` varchar(20) DEFAULT 'x;y' COMMENT 'it''s; \\'quoted\\''\n"
+                        + ") COMMENT 'semicolon; inside';\n"
+                        + "INSERT INTO `order` VALUES (1, 'CREATE TABLE fake (id int);');\n"
+                        + "CREATE TABLE next_table (id int);");
+        assertEquals(2, snapshot.getTables().size());
+        SchemaSnapshot.Table table = table(snapshot, "order");
+        assertEquals("semicolon; inside", table.getComment());
+        assertColumn(table.getColumns().get(0), "id", "bigint", "a;b", 1);
+        assertColumn(table.getColumns().get(1), "desc", "varchar(20)", "it's; 'quoted'", 0);
+        assertNotNull(table(snapshot, "next_table"));
+    }
+
+    @Test
+    public void oracleQuotedIdentifiers() throws IOException {
+        SchemaSnapshot snapshot = parse(DbType.ORACLE,
+                "CREATE TABLE \"MixedCase\" (\"Id\" NUMBER(10), plain VARCHAR2(10));");
+        SchemaSnapshot.Table table = table(snapshot, "MixedCase");
+        assertEquals("Id", table.getColumns().get(0).getName());
+        assertEquals("PLAIN", table.getColumns().get(1).getName());
+    }
+
+    @Test
+    public void scriptsInVersionOrder() throws IOException {
+        File dir = folder.newFolder("migration");
+        write(new File(dir, "R__view.sql"), "CREATE TABLE repeatable (id int);");
+        write(new File(dir, "V10__drop.sql"), "DROP TABLE temp;");
+        write(new File(dir, "V1_10__patch.sql"), "ALTER TABLE temp ADD age int;");
+        write(new File(dir, "V2__alter.sql"), "ALTER TABLE temp ADD name varchar(10);\nCREATE TABLE kept (id int);");
+        write(new File(dir, "V1_1__add.sql"), "ALTER TABLE temp ADD code int;");
+        write(new File(dir, "V1__init.sql"), "CREATE TABLE temp (id int);");
+        List<File> scripts = DdlParser.listScripts(new File[]{dir});
+        String[] expected = {"V1__init.sql", "V1_1__add.sql", "V1_10__patch.sql", "V2__alter.sql", "V10__drop.sql",
+                "R__view.sql"};
+        assertEquals(expected.length, scripts.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], scripts.get(i).getName());
+        }
+
+        DdlParser parser = new DdlParser(DbType.MYSQL);
+        for (File script : scripts) {
+            parser.parse(script);
+        }
+        SchemaSnapshot snapshot = parser.toSnapshot();
+        assertEquals(2, snapshot.getTables().size());
+        assertNotNull(table(snapshot, "kept"));
+        assertNotNull(table(snapshot, "repeatable"));
+    }
+
+    private static SchemaSnapshot parse(DbType dbType, String sql) throws IOException {
+        DdlParser parser = new DdlParser(dbType);
+        parser.parse(new StringReader(sql));
+        return parser.toSnapshot();
+    }
+
+    private static SchemaSnapshot.Table table(SchemaSnapshot snapshot, String name) {
+        for (SchemaSnapshot.Table table : snapshot.getTables()) {
+            if (name.equals(table.getName())) {
+                return table;
+            }
+        }
+        throw new AssertionError("表 " + name + " 不存在");
+    }
+
+    private static void assertColumn(SchemaSnapshot.Column column, String name, String type, String comment,
+                                     int keySeq) {
+        assertEquals(name, column.getName());
+        assertEquals(type, column.getType());
+        if (null == comment) {
+            assertNull(column.getComment());
+        } else {
+            assertEquals(comment, column.getComment());
+        }
+        assertEquals(keySeq, column.getKeySeq());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.baomidou.config.rules;
+
+import org.apache.commons.lang.StringUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 名称转换测试，与原先按 split 实现的转换结果逐一比较
+ */
+public class NameConverterTest {
+
+    private static final String[] NAMES = {
+            "id", "user_name", "t_sys_user", "_user_name", "user_name_", "__user__name__", "user__name",
+            "USER_NAME", "T_SYS_USER", "UserName", "USER", "Name", "x", "_", "__", "abc_", "a_B_c",
+            "order_item2", "t_2016_log", "v1_user_2fa", "user", "", "t_user_login_log"
+    };
+
+    @Test
+    public void underlineToCamel() {
+        for (String name : NAMES) {
+            assertEquals(name, baselineUnderlineToCamel(name), NamingStrategy.underlineToCamel(name));
+        }
+    }
+
+    @Test
+    public void removePrefix() {
+        for (String name : NAMES) {
+            assertEquals(name, baselineRemovePrefix(name), NamingStrategy.removePrefix(name));
+        }
+    }
+
+    @Test
+    public void removePrefixAndCamel() {
+        for (String name : NAMES) {
+            assertEquals(name, baselineUnderlineToCamel(baselineRemovePrefix(name)),
+                    NamingStrategy.removePrefixAndCamel(name));
+        }
+    }
+
+    @Test
+    public void converter() {
+        for (NamingStrategy strategy : NamingStrategy.values()) {
+            NameConverter converter = new NameConverter(strategy);
+            for (String name : NAMES) {
+                String expected = baseline(strategy, name);
+                String message = strategy + ":" + name;
+                // 缓存与不缓存的结果一致
+                for (NameConverter.Name converted : new NameConverter.Name[]{converter.convert(name),
+                        converter.intern(name), converter.intern(name)}) {
+                    assertEquals(message, expected, converted.getPropertyName());
+                    assertEquals(message, StringUtils.capitalize(expected), converted.getCapitalName());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void examples() {
+        assertEquals("userName", NamingStrategy.underlineToCamel("__USER__NAME__"));
+        assertEquals("orderItem2", NamingStrategy.underlineToCamel("order_item2"));
+        assertEquals("userName", NamingStrategy.removePrefixAndCamel("_user_name"));
+        assertEquals("user", NamingStrategy.removePrefixAndCamel("user"));
+        assertEquals("SysUser", new NameConverter(NamingStrategy.remove_prefix_and_camel)
+                .convert("t_sys_user").getCapitalName());
+    }
+
+    private static String baseline(NamingStrategy strategy, String name) {
+        switch (strategy) {
+            case underline_to_camel:
+                return baselineUnderlineToCamel(name);
+            case remove_prefix:
+                return baselineRemovePrefix(name);
+            case remove_prefix_and_camel:
+                return baselineUnderlineToCamel(baselineRemovePrefix(name));
+            default:
+                return StringUtils.isBlank(name) ? "" : name;
+        }
+    }
+
+    /**
+     * 原先的下划线转驼峰实现
+     */
+    private static String baselineUnderlineToCamel(String name) {
+        if (StringUtils.isBlank(name)) {
+            return "";
+        } else if (!name.contains("_")) {
+            return name.substring(0, 1).toLowerCase() + name.substring(1);
+        }
+        StringBuilder result = new StringBuilder();
+        for (String camel : name.split("_")) {
+            if (StringUtils.isBlank(camel)) {
+                continue;
+            }
+            if (result.length() == 0) {
+                result.append(camel.toLowerCase());
+            } else {
+                result.append(camel.substring(0, 1).toUpperCase());
+                result.append(camel.substring(1).toLowerCase());
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * 原先的去掉前缀实现
+     */
+    private static String baselineRemovePrefix(String name) {
+        if (StringUtils.isBlank(name)) {
+            return "";
+        }
+        int idx = name.indexOf("_");
+        if (idx == -1) {
+            return name;
+        }
+        return name.substring(idx + 1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.baomidou.config.rules;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 字段类型映射测试
+ */
+public class TypeMappingRegistryTest {
+
+    @Test
+    public void oracleNumberByPrecision() {
+        TypeMappingRegistry registry = new TypeMappingRegistry(QuerySQL.ORACLE, null);
+        assertEquals("BigDecimal", registry.getJavaType("NUMBER"));
+        assertEquals("Integer", registry.getJavaType("NUMBER(9)"));
+        assertEquals("Long", registry.getJavaType("NUMBER(10)"));
+        assertEquals("BigDecimal", registry.getJavaType("NUMBER(10,2)"));
+        assertEquals("Long", registry.getJavaType("NUMBER(19)"));
+        assertEquals("Long", registry.getJavaType("NUMBER(19,0)"));
+        assertEquals("BigDecimal", registry.getJavaType("NUMBER(20)"));
+        assertEquals("BigDecimal", registry.getJavaType("NUMBER(*,0)"));
+        assertEquals("String", registry.getJavaType("VARCHAR2(64 CHAR)"));
+        assertEquals("Date", registry.getJavaType("TIMESTAMP(6) WITH TIME ZONE"));
+    }
+
+    @Test
+    public void mysqlTypes() {
+        TypeMappingRegistry registry = new TypeMappingRegistry(QuerySQL.MYSQL, null);
+        assertEquals("Long", registry.getJavaType("bigint(20) unsigned"));
+        assertEquals("Integer", registry.getJavaType("int(10) unsigned zerofill"));
+        assertEquals("BigDecimal", registry.getJavaType("decimal(10,2)"));
+        assertEquals("String", registry.getJavaType("varchar(64)"));
+        assertEquals("Date", registry.getJavaType("datetime"));
+        // MySQL 的数值类型不按精度推断
+        assertEquals("Integer", registry.getJavaType("tinyint(1)"));
+        assertEquals(TypeMappingRegistry.DEFAULT_TYPE, registry.getJavaType("geometry"));
+        assertEquals(TypeMappingRegistry.DEFAULT_TYPE, registry.getJavaType(null));
+    }
+
+    @Test
+    public void genericJdbcTypes() {
+        // 没有对应 QuerySQL 的数据库，例如 PostgreSQL、H2
+        TypeMappingRegistry registry = new TypeMappingRegistry(null, null);
+        assertEquals("Integer", registry.getJavaType("int4(10)"));
+        assertEquals("Integer", registry.getJavaType("INTEGER"));
+        assertEquals("Long", registry.getJavaType("int8(19)"));
+        assertEquals("Long", registry.getJavaType("bigserial"));
+        assertEquals("Boolean", registry.getJavaType("bool"));
+        assertEquals("Boolean", registry.getJavaType("BOOLEAN"));
+        assertEquals("Date", registry.getJavaType("timestamptz(35,6)"));
+        assertEquals("Date", registry.getJavaType("TIMESTAMP WITH TIME ZONE"));
+        assertEquals("Date", registry.getJavaType("time"));
+        assertEquals("Double", registry.getJavaType("double precision"));
+        assertEquals("Double", registry.getJavaType("float8"));
+        assertEquals("Float", registry.getJavaType("REAL"));
+        assertEquals("Integer", registry.getJavaType("year"));
+        assertEquals("BigDecimal", registry.getJavaType("numeric(10,2)"));
+        assertEquals("String", registry.getJavaType("CHARACTER VARYING(64)"));
+        assertEquals("String", registry.getJavaType("uuid"));
+        assertEquals("byte[]", registry.getJavaType("bytea"));
+        assertEquals(TypeMappingRegistry.DEFAULT_TYPE, registry.getJavaType("tsvector"));
+    }
+
+    @Test
+    public void overrides() {
+        Map<String, String> overrides = new HashMap<String, String>();
+        overrides.put("TINYINT", "Boolean");
+        overrides.put("json", " com.alibaba.fastjson.JSONObject ");
+        TypeMappingRegistry registry = new TypeMappingRegistry(QuerySQL.MYSQL, overrides);
+        assertEquals("Boolean", registry.getJavaType("tinyint(1)"));
+        assertEquals("com.alibaba.fastjson.JSONObject", registry.getJavaType("JSON"));
+        assertEquals("Long", registry.getJavaType("bigint(20)"));
+
+        // 配置后不再按精度推断
+        registry = new TypeMappingRegistry(QuerySQL.ORACLE, Collections.singletonMap("number", "Long"));
+        assertEquals("Long", registry.getJavaType("NUMBER(10,2)"));
+        assertEquals("Long", registry.getJavaType("NUMBER"));
+    }
+
+    @Test
+    public void parseColumnType() {
+        TypeMappingRegistry.ColumnType type = TypeMappingRegistry.ColumnType.parse("DECIMAL( 10 , 2 ) UNSIGNED");
+        assertEquals("decimal", type.getBaseType());
+        assertEquals(10, type.getPrecision());
+        assertEquals(2, type.getScale());
+
+        type = TypeMappingRegistry.ColumnType.parse("timestamp(6)  with  time zone");
+        assertEquals("timestamp with time zone", type.getBaseType());
+        assertEquals(6, type.getPrecision());
+        assertEquals(-1, type.getScale());
+
+        type = TypeMappingRegistry.ColumnType.parse("NUMBER");
+        assertEquals("number", type.getBaseType());
+        assertEquals(-1, type.getPrecision());
+    }
+}
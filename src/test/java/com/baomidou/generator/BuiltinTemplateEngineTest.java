@@ -0,0 +1,110 @@
+package com.baomidou.generator;
+
+import com.baomidou.config.ConstVal;
+import com.baomidou.config.po.TableField;
+import com.baomidou.config.po.TableInfo;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 内置模板引擎与 velocity 模板的输出必须逐字节一致
+ */
+public class BuiltinTemplateEngineTest {
+
+    private static final String[] TEMPLATES = {ConstVal.TEMPLATE_ENTITY, ConstVal.TEMPLATE_MAPPER,
+            ConstVal.TEMPLATE_XML, ConstVal.TEMPLATE_SERVICE, ConstVal.TEMPLATE_SERVICEIMPL};
+
+    @Test
+    public void sameOutputAsVelocity() throws Exception {
+        assertSameOutput(table("sys_user", "系统用户", fields()));
+    }
+
+    @Test
+    public void nullValuesAndNoFields() throws Exception {
+        // 空值在 velocity 中按引用原样输出
+        assertSameOutput(table("empty", null, new ArrayList<TableField>()));
+    }
+
+    private static void assertSameOutput(TableInfo table) throws Exception {
+        VelocityTemplateEngine velocity = new VelocityTemplateEngine();
+        velocity.init(TEMPLATES);
+        BuiltinTemplateEngine builtin = new BuiltinTemplateEngine();
+        builtin.init(TEMPLATES);
+        for (boolean enableCache : new boolean[]{true, false}) {
+            // 同一张表的各模板共用一个上下文，与生成时一致
+            Map<String, Object> velocityContext = context(table, enableCache);
+            Map<String, Object> builtinContext = context(table, enableCache);
+            for (String template : TEMPLATES) {
+                StringWriter expected = new StringWriter();
+                velocity.merge(template, velocityContext, expected);
+                StringWriter actual = new StringWriter();
+                builtin.merge(template, builtinContext, actual);
+                assertEquals(template + " enableCache=" + enableCache, expected.toString(), actual.toString());
+            }
+        }
+    }
+
+    private static List<TableField> fields() {
+        List<TableField> fields = new ArrayList<TableField>();
+        fields.add(field("id", "bigint(20)", "user_id", "Long", "主键", true));
+        fields.add(field("user_name", "varchar(64)", "userName", "String", "用户名", false));
+        fields.add(field("Boolean", "bit(1)", "Boolean", "Boolean", null, false));
+        fields.add(field("balance", "decimal(10,2)", "balance", "BigDecimal", "余额", false));
+        fields.add(field("create_time", "datetime", "createTime", "Date", "创建时间", false));
+        return fields;
+    }
+
+    private static TableField field(String name, String type, String propertyName, String propertyType,
+                                    String comment, boolean key) {
+        TableField field = new TableField();
+        field.setName(name);
+        field.setType(type);
+        field.setPropertyName(propertyName,
+                Character.toUpperCase(propertyName.charAt(0)) + propertyName.substring(1));
+        field.setPropertyType(propertyType);
+        field.setComment(comment);
+        field.setKeyFlag(key);
+        field.setKeySeq(key ? 1 : 0);
+        return field;
+    }
+
+    private static TableInfo table(String name, String comment, List<TableField> fields) {
+        TableInfo table = new TableInfo();
+        table.setName(name);
+        table.setComment(comment);
+        table.setEntityName("SysUser");
+        table.setMapperName("SysUserMapper");
+        table.setXmlName("SysUserMapper");
+        table.setServiceName("ISysUserService");
+        table.setServiceImplName("SysUserServiceImpl");
+        table.setFields(fields);
+        return table;
+    }
+
+    private static Map<String, Object> context(TableInfo table, boolean enableCache) {
+        Map<String, String> packageInfo = new HashMap<String, String>();
+        packageInfo.put(ConstVal.ENTITY, "com.example.entity");
+        packageInfo.put(ConstVal.MAPPER, "com.example.mapper");
+        packageInfo.put(ConstVal.XML, "com.example.mapper.xml");
+        packageInfo.put(ConstVal.SERIVCE, "com.example.service");
+        packageInfo.put(ConstVal.SERVICEIMPL, "com.example.service.impl");
+        Map<String, Object> context = new HashMap<String, Object>();
+        context.put("package", packageInfo);
+        context.put("table", table);
+        context.put("entity", table.getEntityName());
+        context.put("idGenType", "ID_WORKER");
+        context.put("superClassPackage", "com.baomidou.framework.service.ISuperService");
+        context.put("superClass", "ISuperService");
+        context.put("enableCache", enableCache);
+        context.put("author", "test");
+        context.put("date", "2016-09-20");
+        return context;
+    }
+}
@@ -0,0 +1,93 @@
+package com.baomidou.generator;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 生成文件写入测试
+ */
+public class OutputFileWriterTest {
+
+    private static final String TODAY = "2016-09-20";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void dateOnlyInHeaderIsUnchanged() throws IOException {
+        File file = existing(source("2016-09-01", "User"));
+        OutputFileWriter writer = new OutputFileWriter(true, false, TODAY);
+        assertFalse(writer.write(file.getPath(), bytes(source(TODAY, "User"))));
+        assertEquals(source("2016-09-01", "User"), read(file));
+        assertEquals(1, writer.getUnchanged());
+    }
+
+    @Test
+    public void sameLengthDifferentContentIsWritten() throws IOException {
+        File file = existing(source("2016-09-01", "Role"));
+        OutputFileWriter writer = new OutputFileWriter(true, false, TODAY);
+        assertTrue(writer.write(file.getPath(), bytes(source(TODAY, "User"))));
+        assertEquals(source(TODAY, "User"), read(file));
+        assertEquals(1, writer.getUpdated());
+    }
+
+    @Test
+    public void digitsOutsideDateAreCompared() throws IOException {
+        File file = existing(source(TODAY, "User1"));
+        OutputFileWriter writer = new OutputFileWriter(true, false, TODAY);
+        assertTrue(writer.write(file.getPath(), bytes(source(TODAY, "User2"))));
+        assertEquals(source(TODAY, "User2"), read(file));
+    }
+
+    @Test
+    public void differentLengthIsWritten() throws IOException {
+        File file = existing(source("2016-09-01", "User"));
+        OutputFileWriter writer = new OutputFileWriter(true, false, TODAY);
+        assertTrue(writer.write(file.getPath(), bytes(source(TODAY, "UserRole"))));
+        assertEquals(source(TODAY, "UserRole"), read(file));
+    }
+
+    @Test
+    public void dateComparedWithoutGenerationDate() throws IOException {
+        File file = existing(source("2016-09-01", "User"));
+        OutputFileWriter writer = new OutputFileWriter(true, false);
+        assertTrue(writer.write(file.getPath(), bytes(source(TODAY, "User"))));
+        assertEquals(source(TODAY, "User"), read(file));
+    }
+
+    @Test
+    public void newFileIsCreated() throws IOException {
+        File file = new File(folder.getRoot(), "a/b/User.java");
+        OutputFileWriter writer = new OutputFileWriter(true, false, TODAY);
+        assertTrue(writer.write(file.getPath(), bytes(source(TODAY, "User"))));
+        assertEquals(source(TODAY, "User"), read(file));
+        assertEquals(1, writer.getCreated());
+    }
+
+    private static String source(String date, String className) {
+        return "/**\n * 用户\n *\n * @author test\n * @since " + date + "\n */\npublic class " + className + " {\n}\n";
+    }
+
+    private File existing(String content) throws IOException {
+        File file = folder.newFile("Existing.java");
+        FileUtils.fileWrite(file.getPath(), "UTF-8", content);
+        return file;
+    }
+
+    private static String read(File file) throws IOException {
+        return FileUtils.fileRead(file, "UTF-8");
+    }
+
+    private static byte[] bytes(String content) throws IOException {
+        return content.getBytes("UTF-8");
+    }
+}